@@ -21,13 +21,25 @@
  * Email: brian_borowski AT yahoo DOT com
  */
 
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.ListIterator;
 
+import logic.Diagnostic;
+
 import logic.Parser;
 import logic.ParserException;
+import logic.RowFormatter;
 import logic.Scanner;
 import logic.ScannerException;
+import logic.StatementValidator;
 import logic.Token;
 import logic.TruthTable;
 import logic.TruthValue;
@@ -35,6 +47,9 @@ import logic.TruthValue;
 /**
  * Implements a command-line truth table constructor.
  * The statement argument should be enclosed in quotes " " on UNIX/Linux.
+ * Long statements can be read from a file with -f, or from standard input
+ * with -. With -v, every line of a file is checked as a separate statement
+ * and all of the problems found are listed.
  */
 public class CommandLineTruth {
 
@@ -42,20 +57,50 @@ public class CommandLineTruth {
         final int numberOfArguments = args.length;
         if (numberOfArguments == 0) {
             System.out.println("Usage: java CommandLineTruth <statement>");
+            System.out.println("       java CommandLineTruth -f <file>");
+            System.out.println("       java CommandLineTruth -");
+            System.out.println("       java CommandLineTruth -v <file>");
             return;
         }
-        StringBuilder builder = new StringBuilder();
-        for (int i = 0; i < numberOfArguments; i++) {
-            builder.append(args[i]);
+        if ((numberOfArguments == 2) && (args[0].equals("-v"))) {
+            System.exit(validateFile(args[1]) ? 0 : 1);
+        }
+        StringBuilder builder;
+        Reader reader = null;
+        final Scanner scanner;
+        if ((numberOfArguments == 2) && (args[0].equals("-f"))) {
+            System.out.print("Input: " + args[1] + "\n");
+            try {
+                reader = new InputStreamReader(new FileInputStream(args[1]), Charset.forName("UTF-8"));
+            } catch (final FileNotFoundException fnfe) {
+                System.err.println("Error: Cannot open " + args[1] + ".");
+                System.exit(1);
+            }
+            scanner = new Scanner(reader);
+        } else if ((numberOfArguments == 1) && (args[0].equals("-"))) {
+            System.out.print("Input: standard input\n");
+            reader = new InputStreamReader(System.in, Charset.forName("UTF-8"));
+            scanner = new Scanner(reader);
+        } else {
+            builder = new StringBuilder();
+            for (int i = 0; i < numberOfArguments; i++) {
+                builder.append(args[i]);
+            }
+            final String statement = builder.toString();
+            System.out.print("Input: " + statement + "\n");
+            scanner = new Scanner(statement);
         }
-        final String statement = builder.toString();
-        System.out.print("Input: " + statement + "\n");
-        final Scanner scanner = new Scanner(statement);
         try {
             scanner.tokenize();
         } catch (final ScannerException se) {
             System.err.println("Error: " + se.getMessage());
             System.exit(1);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (final IOException ioe) { }
+            }
         }
         scanner.reformat();
         if (scanner.getStatement().length() == 0) {
@@ -82,24 +127,30 @@ public class CommandLineTruth {
             System.exit(1);
         }
         final TruthTable truthTable = new TruthTable(parser.getStatement(), postfixStream, TruthValue.TRUE_FALSE, true);
+        if (truthTable.getNumberOfPropositions() > TruthTable.MAX_PROPOSITIONS_TO_ENUMERATE) {
+            // Too many rows to list; report the evaluation instead.
+            System.out.print("Rows: " + truthTable.getNumberOfLines() + "\n");
+            System.out.print("Evaluation: " +
+                TruthTable.EVALUATION_DEFINITION[truthTable.getEvaluation()] + "\n");
+            return;
+        }
         builder = new StringBuilder();
         builder.append(truthTable.getHeader(true));
         builder.append("\n");
         builder.append(truthTable.getHeaderSeparator());
         builder.append("\n");
         System.out.print(builder.toString());
-        final int numberOfLines = truthTable.getNumberOfLines();
-        for (int i = numberOfLines - 1; i >= 0; --i) {
+        final long numberOfLines = truthTable.getNumberOfLines();
+        final RowFormatter rowFormatter = truthTable.getRowFormatter();
+        final char[] rowCharArray = new char[rowFormatter.getRowLength()];
+        final long[] columnValues = new long[truthTable.getNumberOfColumnWords()];
+        for (long i = numberOfLines - 1; i >= 0; --i) {
             builder = new StringBuilder();
-            final boolean[] binaryPropositionValues = truthTable.getBinaryFormat(i);
-            final int binaryLength = binaryPropositionValues.length;
-            for (int j = 0; j < binaryLength; j++) {
-                builder.append(" ");
-                builder.append(TruthValue.getTruthValueString(binaryPropositionValues[j], TruthValue.TRUE_FALSE));
-                builder.append(" |");
-            }
+            truthTable.appendPropositionValues(i, true, builder);
             builder.append(" ");
-            builder.append(truthTable.computeRow(i));
+            truthTable.getColumnValues(i, columnValues, 0);
+            rowFormatter.format(columnValues, 0, Integer.MAX_VALUE, rowCharArray);
+            builder.append(rowCharArray);
             builder.append(" ");
             if (i != 0) {
                 builder.append("\n");
@@ -107,4 +158,43 @@ public class CommandLineTruth {
             System.out.print(builder.toString());
         }
     }
+
+    /**
+     * Checks each nonblank line of the file as a statement and prints every
+     * problem found. Returns true if no problems were found.
+     */
+    private static boolean validateFile(final String filename) {
+        final StatementValidator validator = new StatementValidator();
+        int lineNumber = 0, numberOfStatements = 0, numberOfInvalidStatements = 0;
+        try {
+            final BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(filename), Charset.forName("UTF-8")));
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (line.trim().length() == 0) {
+                        continue;
+                    }
+                    numberOfStatements++;
+                    final List<Diagnostic> diagnostics = validator.validate(line);
+                    if (!diagnostics.isEmpty()) {
+                        numberOfInvalidStatements++;
+                    }
+                    for (int i = 0; i < diagnostics.size(); i++) {
+                        System.out.print("Line " + lineNumber + ": " +
+                            diagnostics.get(i).getMessage() + "\n");
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (final IOException ioe) {
+            System.err.println("Error: Cannot read " + filename + ".");
+            return false;
+        }
+        System.out.print("Statements: " + numberOfStatements + ", invalid: " +
+            numberOfInvalidStatements + "\n");
+        return numberOfInvalidStatements == 0;
+    }
 }
@@ -32,6 +32,6 @@ public interface Configurable {
     public void setHighlightMainColumn(boolean isMainColumnHighlighted);
     public void setShowRowNumbers(boolean areRowNumbersShown);
     public void setShowColumnNumbers(boolean areColumnNumbersShown);
-    public boolean setCurrentRow(int row);
+    public boolean setCurrentRow(long row);
     public boolean setCurrentColumn(int column);
 }
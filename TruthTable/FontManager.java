@@ -25,9 +25,16 @@ import java.awt.Font;
 import java.awt.FontFormatException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.HashMap;
 
+/**
+ * Loads the table font once and hands out its derived styles and sizes,
+ * keeping each derived font so that changing the text size back and forth
+ * reuses the same instances, and with them the metrics cached for them.
+ */
 public class FontManager {
     private static Font font;
+    private static final HashMap<Long, Font> derivedFonts = new HashMap<Long, Font>();
 
     static {
         final InputStream inputStream =
@@ -43,8 +50,14 @@ public class FontManager {
         }
     }
 
-    public static Font getFont(final int style, final float size) {
-        return font.deriveFont(style, size);
+    public static synchronized Font getFont(final int style, final float size) {
+        final Long key = ((long)style << 32) | (Float.floatToIntBits(size) & 0xffffffffL);
+        Font derivedFont = derivedFonts.get(key);
+        if (derivedFont == null) {
+            derivedFont = font.deriveFont(style, size);
+            derivedFonts.put(key, derivedFont);
+        }
+        return derivedFont;
     }
 
     private static void loadDefaultFonts() {
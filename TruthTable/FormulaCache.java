@@ -0,0 +1,150 @@
+/**
+ * Truth Table Constructor:
+ *     generates truth tables for statements in propositional logic
+ * Copyright (C) 2006, 2010, 2011  Brian S. Borowski
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * Email: brian_borowski AT yahoo DOT com
+ */
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import logic.ColumnCache;
+import logic.Parser;
+import logic.TruthTable;
+
+/**
+ * Keeps the most recently constructed statements together with their parse
+ * tree, compiled table and classification, so that revisiting a statement
+ * from the history or toggling an option does not scan, parse or classify
+ * it again. Entries are keyed by the reformatted statement and the options
+ * the table was built with, and the least recently used are dropped once
+ * there are more than the given number or their statements, parse trees
+ * and column caches could exceed MAX_BYTES.
+ */
+public class FormulaCache {
+    public static long MAX_BYTES = 128L << 20;
+
+    // Rough sizes of a statement character and of a token together with
+    // its list nodes and expression tree node.
+    private static final int BYTES_PER_CHARACTER = 2, BYTES_PER_TOKEN = 128;
+
+    private final LinkedHashMap<String, Formula> formulas;
+    private final int capacity;
+    private long numberOfBytes;
+
+    public FormulaCache(final int capacity) {
+        this.capacity = capacity;
+        formulas = new LinkedHashMap<String, Formula>(capacity << 1, 0.75f, true);
+    }
+
+    public Formula get(final String statement, final int displayMethod,
+        final boolean removeParentheses, final boolean alphabetizePropositions) {
+
+        return formulas.get(getKey(statement, displayMethod, removeParentheses,
+            alphabetizePropositions));
+    }
+
+    public Formula put(final String statement, final int displayMethod,
+        final boolean removeParentheses, final boolean alphabetizePropositions,
+        final Parser parser, final TruthTable truthTable) {
+
+        final Formula formula = new Formula(statement, parser, truthTable);
+        final Formula previous = formulas.put(getKey(statement, displayMethod,
+            removeParentheses, alphabetizePropositions), formula);
+        if (previous != null)
+            numberOfBytes -= previous.numberOfBytes;
+        numberOfBytes += formula.numberOfBytes;
+        final Iterator<Formula> iterator = formulas.values().iterator();
+        while ((formulas.size() > 1) &&
+               ((formulas.size() > capacity) || (numberOfBytes > MAX_BYTES))) {
+            numberOfBytes -= iterator.next().numberOfBytes;
+            iterator.remove();
+        }
+        return formula;
+    }
+
+    public void clear() {
+        formulas.clear();
+        numberOfBytes = 0;
+    }
+
+    private static String getKey(final String statement, final int displayMethod,
+        final boolean removeParentheses, final boolean alphabetizePropositions) {
+
+        final StringBuilder builder = new StringBuilder(statement.length() + 4);
+        builder.append(statement).append('\n').append(displayMethod);
+        builder.append(removeParentheses ? 'r' : '-');
+        builder.append(alphabetizePropositions ? 'a' : '-');
+        return builder.toString();
+    }
+
+    public static class Formula {
+        private final String statement;
+        private final Parser parser;
+        private final TruthTable truthTable;
+        private final long numberOfBytes;
+        private volatile int evaluation;
+
+        private Formula(final String statement, final Parser parser,
+            final TruthTable truthTable) {
+
+            this.statement = statement;
+            this.parser = parser;
+            this.truthTable = truthTable;
+            evaluation = TruthTable.UNDEFINED;
+            // Statements read from files can be megabytes long. The text is
+            // held twice, here and in the cache key, and the parser keeps
+            // every token in its token stream, postfix stream and tree.
+            final long statementBytes = 2L * BYTES_PER_CHARACTER * statement.length() +
+                (long)BYTES_PER_TOKEN * parser.getNumberOfTokens();
+            // The column cache is built lazily, and only if it fits within
+            // the limit checked by TruthTable.getColumnCache.
+            if (truthTable.getNumberOfPropositions() > TruthTable.MAX_PROPOSITIONS_TO_ENUMERATE) {
+                numberOfBytes = statementBytes;
+            } else {
+                final long size = ColumnCache.getSizeInBytes(
+                    truthTable.getCompiledStatement().getNumberOfColumns(),
+                    truthTable.getNumberOfWords());
+                numberOfBytes = statementBytes +
+                    ((size > TruthTable.MAX_COLUMN_CACHE_BYTES) ? 0 : size);
+            }
+        }
+
+        /** Returns the reformatted statement the table was constructed for. */
+        public String getStatement() {
+            return statement;
+        }
+
+        public Parser getParser() {
+            return parser;
+        }
+
+        public TruthTable getTruthTable() {
+            return truthTable;
+        }
+
+        public int getEvaluation() {
+            return evaluation;
+        }
+
+        public void setEvaluation(final int evaluation) {
+            this.evaluation = evaluation;
+        }
+    }
+}
@@ -44,9 +44,14 @@ import java.awt.event.WindowListener;
 import java.awt.image.BufferedImage;
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.charset.Charset;
 import java.text.NumberFormat;
 import java.util.Locale;
 import java.util.ResourceBundle;
@@ -72,11 +77,13 @@ import javax.swing.JProgressBar;
 import javax.swing.JRadioButtonMenuItem;
 import javax.swing.JScrollBar;
 import javax.swing.JScrollPane;
+import javax.swing.JTextField;
 import javax.swing.JToolBar;
 import javax.swing.JViewport;
 import javax.swing.KeyStroke;
 import javax.swing.Timer;
 
+import logic.Classifier;
 import logic.Parser;
 import logic.ParserException;
 import logic.Scanner;
@@ -89,10 +96,13 @@ public class GUI extends JFrame implements Runnable {
                             ROW_METHOD = 1,
                             COLUMN_METHOD = 2;
     private static final long serialVersionUID = 1L;
+    private static final int HISTORY_LENGTH = 25;
 
     private final ApplicationStarter applicationStarter;
     private volatile Thread evaluateThread;
+    private volatile Classifier classifier;
     private volatile FileSaveThread fileSaveThread;
+    private volatile FileLoadThread fileLoadThread;
 
     private final JButton constructButton, firstButton, previousButton, nextButton,
                   lastButton;
@@ -116,10 +126,15 @@ public class GUI extends JFrame implements Runnable {
     private final TruthTablePanel truthTablePanel;
     private TruthTable truthTable;
     private final QueueComboBox statementComboBox;
+    private final LiveStatementValidator liveStatementValidator;
+    private final FormulaCache formulaCache;
+    private FormulaCache.Formula currentFormula;
     private int outputMode, cachedEvaluation, computationMethod,
-                currentRow, currentColumn, currentIteration;
+                currentColumn, progressShift;
+    private long currentRow;
+    private volatile long currentIteration;
 
-    private final int smallTableLimit, maxStatementLength, maxRowsInTextTable;
+    private final int smallTableLimit, maxStatementLength;
     private final boolean hasFullPermission;
     private final boolean[] buttonStates;
     private final String[] methodNames, supportedImageTypes, supportedImageExtensions;
@@ -135,7 +150,6 @@ public class GUI extends JFrame implements Runnable {
         hasFullPermission = getHasFullPermission();
         smallTableLimit = Integer.parseInt(bundle.getString("SMALL_TABLE_LIMIT"));
         maxStatementLength = Integer.parseInt(bundle.getString("MAX_STATEMENT_LENGTH"));
-        maxRowsInTextTable = Integer.parseInt(bundle.getString("MAX_ROWS_IN_TEXT_TABLE"));
         int arraySize = Integer.parseInt(bundle.getString("NUMBER_OF_METHODS"));
         methodNames = new String[arraySize];
         for (int i = 0; i < arraySize; i++)
@@ -161,11 +175,13 @@ public class GUI extends JFrame implements Runnable {
             public void actionPerformed(final ActionEvent e) {
                 if ((evaluateThread != null) && (evaluateThread.isAlive())) {
                     evaluateThread = null;
+                    cancelClassifier();
                     cachedEvaluation = TruthTable.UNDEFINED;
                 }
                 if ((fileSaveThread != null) && (fileSaveThread.isAlive())) {
                     fileSaveThread = null;
                 }
+                abortFileLoad();
             }
         };
         final InputMap inputMap =
@@ -174,7 +190,7 @@ public class GUI extends JFrame implements Runnable {
         getRootPane().getActionMap().put("escape", escapeEvaluationAction);
 
         setJMenuBar(getCreatedMenuBar());
-        truthTableTextArea = new TruthTableTextArea(maxRowsInTextTable);
+        truthTableTextArea = new TruthTableTextArea();
         truthTableTextArea.setEditable(false);
 
         final Container contentPane = getContentPane();
@@ -182,8 +198,12 @@ public class GUI extends JFrame implements Runnable {
 
         final QueueComboBoxEditor basicEditor = new QueueComboBoxEditor(
             30, maxStatementLength, new StatementKeyListener());
-        statementComboBox = new QueueComboBox(basicEditor, 25);
+        statementComboBox = new QueueComboBox(basicEditor, HISTORY_LENGTH);
         statementComboBox.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        formulaCache = new FormulaCache(HISTORY_LENGTH);
+        liveStatementValidator = new LiveStatementValidator(
+            (JTextField)basicEditor.getEditorComponent());
+        updateTableOptions();
 
         ImagePanel imagePanel = new ImagePanel("images/construct.gif");
 
@@ -354,6 +374,7 @@ public class GUI extends JFrame implements Runnable {
         scrollPane = new JScrollPane(truthTablePanel);
         scrollPane.setFocusable(true);
         scrollPane.getVerticalScrollBar().setUnitIncrement(10);
+        truthTablePanel.installNavigationActions(scrollPane);
         contentPane.add(scrollPane, BorderLayout.CENTER);
 
         progressBar = new JProgressBar();
@@ -363,10 +384,13 @@ public class GUI extends JFrame implements Runnable {
 
         timer = new Timer((int)javax.management.timer.Timer.ONE_SECOND / 8, new ActionListener() {
             public void actionPerformed(final ActionEvent ae) {
+                final Classifier currentClassifier = classifier;
                 if (progressBar.isIndeterminate())
                     progressBar.setValue(progressBar.getValue() + 1);
+                else if (currentClassifier != null)
+                    progressBar.setValue((int)currentClassifier.getProgress());
                 else
-                    progressBar.setValue(currentIteration);
+                    progressBar.setValue((int)(currentIteration >> progressShift));
             }
         });
 
@@ -390,64 +414,51 @@ public class GUI extends JFrame implements Runnable {
     public void stop() {
         evaluateThread = null;
         fileSaveThread = null;
+        cancelClassifier();
+    }
+
+    private void cancelClassifier() {
+        final Classifier currentClassifier = classifier;
+        if (currentClassifier != null)
+            currentClassifier.cancel();
     }
 
     public void run() {
+        final FormulaCache.Formula formula = currentFormula;
         if (cachedEvaluation == TruthTable.UNDEFINED) {
             final long startTime = System.currentTimeMillis();
             long endTime;
             final Thread thisThread = Thread.currentThread();
-            final int numberOfLines = truthTable.getNumberOfLines(),
-                pos = truthTable.getPositionOfMainColumn(),
-                upperBound = numberOfLines / 2, oneLess = numberOfLines - 1;
-            int result;
-            char ch;
-            boolean done = false;
-            final String row = truthTable.computeRow(0);
-            currentIteration = 0;
-
-            ch = row.charAt(pos);
-            if (ch == 'T')
-                result = TruthTable.TAUTOLOGY;
-            else if (ch == '1')
-                result = TruthTable.IDENTITY;
-            else
-                result = TruthTable.CONTRADICTION;
+            final long numberOfLines = truthTable.getNumberOfLines();
+            final Classifier currentClassifier = truthTable.createClassifier();
+            classifier = currentClassifier;
 
             if (numberOfLines > smallTableLimit) {
-                progressBar.setIndeterminate(false);
-                progressBar.setString(null);
-                progressBar.setMaximum(upperBound);
+                final boolean isIndeterminate = currentClassifier.getMaximumProgress() == 0;
+                progressBar.setIndeterminate(isIndeterminate);
+                progressBar.setString(isIndeterminate ? "" : null);
+                progressBar.setValue(0);
+                progressBar.setMaximum((int)currentClassifier.getMaximumProgress());
                 initializeStatusPanel(true);
                 statusLabel.setForeground(Color.BLACK);
                 statusLabel.setText("In progress. Press Escape to abort.");
                 evaluationStatsLabel.setText("");
                 timer.start();
             }
-            while ((evaluateThread == thisThread) && (currentIteration < upperBound)) {
-                if ((truthTable.computeRow(currentIteration).charAt(pos) == ch) &&
-                    (truthTable.computeRow(oneLess - currentIteration).charAt(pos) == ch))
-                    currentIteration += 1;
-                else {
-                    currentIteration = numberOfLines;
-                    done = true;
-                    break;
-                }
-            }
+            final int result = currentClassifier.classify();
+            if (classifier == currentClassifier)
+                classifier = null;
             stopTimer();
-            if (evaluateThread == thisThread) {
-                if (currentIteration != numberOfLines) currentIteration <<= 1;
-
-                if (!done)
-                    cachedEvaluation = result;
-                else
-                    cachedEvaluation = TruthTable.CONDITIONAL;
+            progressBar.setIndeterminate(false);
+            if ((evaluateThread == thisThread) && (result != TruthTable.UNDEFINED)) {
+                cachedEvaluation = result;
+                formula.setEvaluation(result);
                 endTime = System.currentTimeMillis();
 
-                if (currentIteration == 0)
+                if (numberOfLines == 1)
                     evaluationStatsLabel.setText("1 row / " + (endTime - startTime)/1000f + " s");
                 else
-                    evaluationStatsLabel.setText(NumberFormat.getInstance().format(currentIteration) + " rows / " + (endTime - startTime)/1000f + " s");
+                    evaluationStatsLabel.setText(NumberFormat.getInstance().format(numberOfLines) + " rows / " + (endTime - startTime)/1000f + " s");
                 statusLabel.setForeground(Color.RED);
                 statusLabel.setText(TruthTable.EVALUATION_DEFINITION[cachedEvaluation]);
             } else {
@@ -560,6 +571,13 @@ public class GUI extends JFrame implements Runnable {
         exportMenu.add(exportTextMenuItem);
 
         KeyStroke ks;
+        final int keyMask = Toolkit.getDefaultToolkit().getMenuShortcutKeyMask();
+        final JMenuItem openItem = new JMenuItem("Open Statement...");
+        ks = KeyStroke.getKeyStroke(KeyEvent.VK_O, keyMask);
+        openItem.setAccelerator(ks);
+        openItem.setMnemonic('O');
+        openItem.addActionListener(new OpenStatementActionListener(this));
+        fileMenu.add(openItem);
         fileMenu.add(exportMenu);
         // if (!isMacOS) {
         final JMenuItem exitItem = new JMenuItem("Exit");
@@ -601,7 +619,6 @@ public class GUI extends JFrame implements Runnable {
         final JMenu textSizeMenu = new JMenu("Text Size");
         textSizeMenu.setMnemonic('S');
 
-        final int keyMask = Toolkit.getDefaultToolkit().getMenuShortcutKeyMask();
         final JMenuItem increaseItem = new JMenuItem("Increase");
         increaseItem.setMnemonic('I');
         ks = KeyStroke.getKeyStroke(KeyEvent.VK_EQUALS, keyMask);
@@ -618,6 +635,12 @@ public class GUI extends JFrame implements Runnable {
         normalItem.setAccelerator(ks);
         normalItem.addActionListener(new NormalFontActionListener());
 
+        final JMenuItem goToRowItem = new JMenuItem("Go to Row...");
+        goToRowItem.setMnemonic('W');
+        ks = KeyStroke.getKeyStroke(KeyEvent.VK_G, keyMask);
+        goToRowItem.setAccelerator(ks);
+        goToRowItem.addActionListener(new GoToRowActionListener(this));
+
         textSizeMenu.add(increaseItem);
         textSizeMenu.add(decreaseItem);
         textSizeMenu.addSeparator();
@@ -655,6 +678,7 @@ public class GUI extends JFrame implements Runnable {
         viewMenu.add(alternateColorsItem);
         viewMenu.addSeparator();
         viewMenu.add(textSizeMenu);
+        viewMenu.add(goToRowItem);
 
         final JMenu optionsMenu = new JMenu("Options");
         optionsMenu.setMnemonic('O');
@@ -667,6 +691,14 @@ public class GUI extends JFrame implements Runnable {
         alphabetizePropositionsItem.setMnemonic('A');
         alphabetizePropositionsItem.setState(true);
 
+        final ActionListener tableOptionsListener = new ActionListener() {
+            public void actionPerformed(final ActionEvent e) {
+                updateTableOptions();
+            }
+        };
+        removeParensItem.addActionListener(tableOptionsListener);
+        alphabetizePropositionsItem.addActionListener(tableOptionsListener);
+
         optionsMenu.add(removeParensItem);
         optionsMenu.add(alphabetizePropositionsItem);
 
@@ -693,7 +725,7 @@ public class GUI extends JFrame implements Runnable {
         return menuBar;
     }
 
-    private void processCommand(String statement, final boolean updateFields) {
+    private void processCommand(final String statement, final boolean updateFields) {
         statementComboBox.requestFocusInWindow();
         if (evaluateThread != null)
             stop();
@@ -705,46 +737,152 @@ public class GUI extends JFrame implements Runnable {
                 "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
-        final Scanner scanner = new Scanner(statement);
+        // Statements from the history are already in reformatted form.
+        final FormulaCache.Formula formula = getCachedFormula(statement);
+        if (formula != null) {
+            showFormula(formula, updateFields, true);
+            return;
+        }
+        final LiveStatementValidator.PreparedStatement prepared =
+            liveStatementValidator.takePreparedStatement(statement, outputMode,
+                removeParensItem.getState(), alphabetizePropositionsItem.getState());
+        if (prepared != null) {
+            final FormulaCache.Formula preparedFormula = formulaCache.put(
+                prepared.getStatement(), outputMode, removeParensItem.getState(),
+                alphabetizePropositionsItem.getState(), prepared.getParser(),
+                prepared.getTruthTable());
+            preparedFormula.setEvaluation(prepared.getEvaluation());
+            showFormula(preparedFormula, updateFields, true);
+        } else {
+            processCommand(new Scanner(statement), updateFields, true);
+        }
+    }
+
+    /**
+     * Constructs the table for a statement read from a file. The statement
+     * is scanned straight from the file and never placed in the statement
+     * field, so it is not limited to the length the field accepts. Since
+     * long statements take seconds to scan and parse, that is done on a
+     * FileLoadThread.
+     */
+    private void processFile(final File file) {
+        statementComboBox.requestFocusInWindow();
+        if (evaluateThread != null)
+            stop();
+        abortFileLoad();
+        final Reader reader;
+        try {
+            reader = new InputStreamReader(new FileInputStream(file), Charset.forName("UTF-8"));
+        } catch (final FileNotFoundException fnfe) {
+            AudioOptionPane.showMessageDialog(this,
+                "Cannot open file '" + file.getPath() + "'.",
+                "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        fileLoadThread = new FileLoadThread(this, reader, outputMode,
+            removeParensItem.getState(), alphabetizePropositionsItem.getState());
+        fileLoadThread.start();
+    }
+
+    /**
+     * Gives the window back to the user if a statement is being loaded from
+     * a file. The load runs to completion but its result is discarded.
+     */
+    private void abortFileLoad() {
+        final FileLoadThread currentFileLoadThread = fileLoadThread;
+        if (currentFileLoadThread != null) {
+            fileLoadThread = null;
+            currentFileLoadThread.restoreStatus();
+        }
+    }
+
+    private void processCommand(final Scanner scanner, final boolean updateFields,
+        final boolean isInStatementField) {
+
         try {
             scanner.tokenize();
         } catch (final ScannerException se) {
-            statementComboBox.select(se.getXValue() - 1, se.getYValue());
+            if (isInStatementField)
+                statementComboBox.select(se.getXValue() - 1, se.getYValue());
             AudioOptionPane.showMessageDialog(this,
                  se.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
         scanner.reformat();
-        statement = scanner.getStatement();
-        if (updateFields)
-            statementComboBox.setText(scanner.getStatement());
+        final String statement = scanner.getStatement();
+        if (statement.length() == 0) {
+            AudioOptionPane.showMessageDialog(this,
+                "Cannot construct table: no statement entered.",
+                "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if ((updateFields) && (isInStatementField))
+            statementComboBox.setText(statement);
         final Parser parser = new Parser(scanner.getTokenStream());
         try {
             parser.parse();
         } catch (final ParserException pe) {
-            if (pe.selectAll())
-                statementComboBox.selectAll();
-            else
-                statementComboBox.select(pe.getXValue() - 1, pe.getXValue());
+            if (isInStatementField) {
+                if (pe.selectAll())
+                    statementComboBox.selectAll();
+                else
+                    statementComboBox.select(pe.getXValue() - 1, pe.getXValue());
+            }
             AudioOptionPane.showMessageDialog(this,
                 pe.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
-        if (updateFields)
-            statementComboBox.addItem(scanner.getStatement());
-        if (removeParensItem.getState())
-            parser.removeUnnecessaryParentheses();
-        truthTable = new TruthTable(parser.getStatement(),
-            parser.getPostfixStream(), outputMode, alphabetizePropositionsItem.getState());
+        constructTable(statement, parser, updateFields, isInStatementField);
+    }
+
+    private void constructTable(final String statement, final Parser parser,
+        final boolean updateFields, final boolean isInStatementField) {
+
+        FormulaCache.Formula formula = getCachedFormula(statement);
+        if (formula == null) {
+            if (removeParensItem.getState())
+                parser.removeUnnecessaryParentheses();
+            formula = formulaCache.put(statement, outputMode, removeParensItem.getState(),
+                alphabetizePropositionsItem.getState(), parser,
+                new TruthTable(parser.getStatement(), parser.getPostfixStream(),
+                    outputMode, alphabetizePropositionsItem.getState()));
+        }
+        showFormula(formula, updateFields, isInStatementField);
+    }
+
+    private void updateTableOptions() {
+        liveStatementValidator.setTableOptions(outputMode, removeParensItem.getState(),
+            alphabetizePropositionsItem.getState());
+    }
+
+    private FormulaCache.Formula getCachedFormula(final String statement) {
+        return formulaCache.get(statement, outputMode, removeParensItem.getState(),
+            alphabetizePropositionsItem.getState());
+    }
+
+    private void showFormula(final FormulaCache.Formula formula, final boolean updateFields,
+        final boolean isInStatementField) {
+
+        final String statement = formula.getStatement();
+        if ((updateFields) && (isInStatementField)) {
+            if (!statement.equals(statementComboBox.getText()))
+                statementComboBox.setText(statement);
+            statementComboBox.addItem(statement);
+        }
+        if (formula.getEvaluation() != TruthTable.UNDEFINED)
+            cachedEvaluation = formula.getEvaluation();
+        else
+            formula.setEvaluation(cachedEvaluation);
+        currentFormula = formula;
+        truthTable = formula.getTruthTable();
         truthTableTextArea.setTruthTable(truthTable, updateFields);
         truthTableTextArea.setHighlightMainColumn(highlightItem.getState());
         truthTableTextArea.setShowRowNumbers(numberRowsItem.getState());
         truthTableTextArea.setShowColumnNumbers(numberColumnsItem.getState());
         if (textItem.isSelected()) {
-            if (truthTable.getNumberOfLines() > maxRowsInTextTable) {
+            if (!truthTableTextArea.canDisplay(truthTable)) {
                 AudioOptionPane.showMessageDialog(this,
-                    "Cannot display tables with more than " +
-                    maxRowsInTextTable + " rows in text.", "Information",
+                    "Cannot display tables this large in text.", "Information",
                     JOptionPane.INFORMATION_MESSAGE);
                 graphicItem.setSelected(true);
                 scrollPane.setViewportView(truthTablePanel);
@@ -765,7 +903,7 @@ public class GUI extends JFrame implements Runnable {
         evaluateThread.start();
         lastStatement = statement;
         exportMenu.setEnabled(hasFullPermission);
-        if (updateFields)
+        if ((updateFields) && (isInStatementField))
             statementComboBox.selectAll();
     }
 
@@ -866,8 +1004,8 @@ public class GUI extends JFrame implements Runnable {
             printWriter.println(builder.toString());
         }
 
-        final int numberOfLines = truthTable.getNumberOfLines(),
-            displayMethod = truthTable.getDisplayMethod(),
+        final long numberOfLines = truthTable.getNumberOfLines();
+        final int displayMethod = truthTable.getDisplayMethod(),
             columnInfoHeight = truthTable.getColumnInfoHeight();
         currentIteration = 0;
         while ((fileSaveThread == thisThread) && (currentIteration < numberOfLines)) {
@@ -969,7 +1107,7 @@ public class GUI extends JFrame implements Runnable {
             if ((file != null) && (state == JFileChooser.APPROVE_OPTION)) {
                 new Thread() {
                     public void run() {
-                        final int numberOfLines = truthTable.getNumberOfLines();
+                        final long numberOfLines = truthTable.getNumberOfLines();
                         final String evaluationLabelStr = evaluationLabel.getText(),
                                statusLabelStr = statusLabel.getText(),
                                evaluationStatsLabelStr = evaluationStatsLabel.getText();
@@ -1045,14 +1183,16 @@ public class GUI extends JFrame implements Runnable {
             String evaluationLabelStr = evaluationLabel.getText(),
                    statusLabelStr = statusLabel.getText(),
                    evaluationStatsLabelStr = evaluationStatsLabel.getText();
-            final int numberOfLines = truthTable.getNumberOfLines();
+            final long numberOfLines = truthTable.getNumberOfLines();
             if (numberOfLines > smallTableLimit) {
                 evaluationLabelStr = evaluationLabel.getText();
                 statusLabelStr = statusLabel.getText();
                 evaluationStatsLabelStr = evaluationStatsLabel.getText();
                 progressBar.setIndeterminate(false);
                 progressBar.setString(null);
-                progressBar.setMaximum(numberOfLines);
+                // Scale the row count down to the int range of the progress bar.
+                progressShift = Math.max(0, 33 - Long.numberOfLeadingZeros(numberOfLines));
+                progressBar.setMaximum((int)(numberOfLines >> progressShift));
                 initializeStatusPanel(true);
                 evaluationLabel.setText("Saving truth table to file. ");
                 statusLabel.setForeground(Color.BLACK);
@@ -1089,6 +1229,134 @@ public class GUI extends JFrame implements Runnable {
         }
     }
 
+    /**
+     * Scans, parses and compiles a statement read from a file off the event
+     * dispatch thread, then shows its table from there. The table options
+     * are the ones in effect when the file was opened.
+     */
+    class FileLoadThread extends Thread implements Runnable {
+        private final JFrame parent;
+        private final Reader reader;
+        private final int displayMethod;
+        private final boolean removeParentheses, alphabetizePropositions;
+        private final String evaluationLabelStr, statusLabelStr, evaluationStatsLabelStr;
+        private final Color statusLabelColor;
+
+        public FileLoadThread(final JFrame parent, final Reader reader, final int displayMethod,
+            final boolean removeParentheses, final boolean alphabetizePropositions) {
+
+            this.parent = parent;
+            this.reader = reader;
+            this.displayMethod = displayMethod;
+            this.removeParentheses = removeParentheses;
+            this.alphabetizePropositions = alphabetizePropositions;
+            evaluationLabelStr = evaluationLabel.getText();
+            statusLabelStr = statusLabel.getText();
+            evaluationStatsLabelStr = evaluationStatsLabel.getText();
+            statusLabelColor = statusLabel.getForeground();
+            progressBar.setIndeterminate(true);
+            progressBar.setString("");
+            progressBar.setValue(0);
+            initializeStatusPanel(true);
+            evaluationLabel.setText("Reading statement from file. ");
+            statusLabel.setForeground(Color.BLACK);
+            statusLabel.setText("Press Escape to abort.");
+            evaluationStatsLabel.setText("");
+            setMutableOptionsEnabled(false);
+            setCursor(waitCursor);
+            timer.start();
+        }
+
+        public void run() {
+            final Scanner scanner = new Scanner(reader);
+            String statement = null, message = null;
+            Parser parser = null;
+            TruthTable table = null;
+            try {
+                scanner.tokenize();
+                scanner.reformat();
+                statement = scanner.getStatement();
+                if (statement.length() == 0) {
+                    message = "Cannot construct table: no statement entered.";
+                } else {
+                    parser = new Parser(scanner.getTokenStream());
+                    parser.parse();
+                    if (removeParentheses)
+                        parser.removeUnnecessaryParentheses();
+                    table = new TruthTable(parser.getStatement(), parser.getPostfixStream(),
+                        displayMethod, alphabetizePropositions);
+                }
+            } catch (final ScannerException se) {
+                message = se.getMessage();
+            } catch (final ParserException pe) {
+                message = pe.getMessage();
+            } catch (final OutOfMemoryError oome) {
+                message = "Additional memory was requested to read the statement, but none is available.";
+            } finally {
+                try {
+                    reader.close();
+                } catch (final IOException ioe) { }
+            }
+            final String loadedStatement = statement, errorMessage = message;
+            final Parser loadedParser = parser;
+            final TruthTable loadedTable = table;
+            EventQueue.invokeLater(new Runnable() {
+                public void run() {
+                    if (fileLoadThread != FileLoadThread.this)
+                        return;
+                    fileLoadThread = null;
+                    restoreStatus();
+                    if (errorMessage != null) {
+                        AudioOptionPane.showMessageDialog(parent,
+                            errorMessage, "Error", JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
+                    FormulaCache.Formula formula = formulaCache.get(loadedStatement,
+                        displayMethod, removeParentheses, alphabetizePropositions);
+                    if (formula == null)
+                        formula = formulaCache.put(loadedStatement, displayMethod,
+                            removeParentheses, alphabetizePropositions, loadedParser, loadedTable);
+                    showFormula(formula, true, false);
+                }
+            });
+        }
+
+        void restoreStatus() {
+            stopTimer();
+            progressBar.setIndeterminate(false);
+            evaluationLabel.setText(evaluationLabelStr);
+            statusLabel.setForeground(statusLabelColor);
+            statusLabel.setText(statusLabelStr);
+            evaluationStatsLabel.setText(evaluationStatsLabelStr);
+            setMutableOptionsEnabled(true);
+            setCursor(defaultCursor);
+        }
+    }
+
+    class OpenStatementActionListener implements ActionListener {
+        private final JFrame parent;
+
+        public OpenStatementActionListener(final JFrame parent) {
+            this.parent = parent;
+        }
+
+        public void actionPerformed(final ActionEvent e) {
+            final JFileChooser chooser = new JFileChooser();
+            chooser.setDialogTitle("Open Statement");
+            chooser.setFileFilter(new TextFilter());
+            if (currentDirectory != null)
+                chooser.setCurrentDirectory(currentDirectory);
+            final int state = chooser.showOpenDialog(parent);
+            final File file = chooser.getSelectedFile();
+            if ((file != null) && (state == JFileChooser.APPROVE_OPTION)) {
+                currentDirectory = chooser.getCurrentDirectory();
+                cachedEvaluation = TruthTable.UNDEFINED;
+                scrollPane.getVerticalScrollBar().setValue(0);
+                processFile(file);
+            }
+        }
+    }
+
     class ExportTextActionListener implements ActionListener {
         private final JFrame parent;
 
@@ -1159,19 +1427,49 @@ public class GUI extends JFrame implements Runnable {
         }
 
         public void actionPerformed(final ActionEvent e) {
-            if ((truthTable == null) || (truthTable.getNumberOfLines() <= maxRowsInTextTable)) {
+            if ((truthTable == null) || (truthTableTextArea.canDisplay(truthTable))) {
                 scrollPane.setViewportView(truthTableTextArea);
                 redrawTruthTableTextArea();
             } else {
                 graphicItem.setSelected(true);
                 AudioOptionPane.showMessageDialog(parent,
-                    "Cannot display tables with more than " +
-                    maxRowsInTextTable + " rows in text.", "Information",
+                    "Cannot display tables this large in text.", "Information",
                     JOptionPane.INFORMATION_MESSAGE);
             }
         }
     }
 
+    class GoToRowActionListener implements ActionListener {
+        private final JFrame parent;
+
+        public GoToRowActionListener(final JFrame parent) {
+            this.parent = parent;
+        }
+
+        public void actionPerformed(final ActionEvent e) {
+            if (truthTable == null) return;
+            final long lastRow = truthTable.getNumberOfLines() - 1;
+            final String input = JOptionPane.showInputDialog(parent,
+                "Row number (0 to " + lastRow + "):",
+                String.valueOf(truthTablePanel.getFirstVisibleRow()));
+            if (input == null) return;
+            final long row;
+            try {
+                row = Long.parseLong(input.trim());
+            } catch (final NumberFormatException nfe) {
+                AudioOptionPane.showMessageDialog(parent,
+                    "Enter a row number from 0 to " + lastRow + ".", "Error",
+                    JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            if (textItem.isSelected()) {
+                truthTableTextArea.scrollToRow(row);
+            } else {
+                truthTablePanel.scrollToRow(row);
+            }
+        }
+    }
+
     class GraphicActionListener implements ActionListener {
         public void actionPerformed(final ActionEvent e) {
             scrollPane.setViewportView(truthTablePanel);
@@ -1181,6 +1479,7 @@ public class GUI extends JFrame implements Runnable {
     class TrueFalseActionListener implements ActionListener {
         public void actionPerformed(final ActionEvent e) {
             outputMode = TruthValue.TRUE_FALSE;
+            updateTableOptions();
             if (truthTable != null) {
                 if (cachedEvaluation == TruthTable.IDENTITY)
                     cachedEvaluation = TruthTable.TAUTOLOGY;
@@ -1192,6 +1491,7 @@ public class GUI extends JFrame implements Runnable {
     class ZeroOneActionListener implements ActionListener {
         public void actionPerformed(final ActionEvent e) {
             outputMode = TruthValue.ZERO_ONE;
+            updateTableOptions();
             if (truthTable != null) {
                 if (cachedEvaluation == TruthTable.TAUTOLOGY)
                     cachedEvaluation = TruthTable.IDENTITY;
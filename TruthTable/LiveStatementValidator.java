@@ -0,0 +1,303 @@
+/**
+ * Truth Table Constructor:
+ *     generates truth tables for statements in propositional logic
+ * Copyright (C) 2006, 2010, 2011  Brian S. Borowski
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * Email: brian_borowski AT yahoo DOT com
+ */
+
+import java.awt.Color;
+import java.awt.EventQueue;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import javax.swing.JTextField;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DefaultHighlighter;
+import javax.swing.text.Highlighter;
+
+import logic.Diagnostic;
+import logic.Parser;
+import logic.ParserException;
+import logic.Scanner;
+import logic.ScannerException;
+import logic.StatementValidator;
+import logic.TruthTable;
+
+/**
+ * Validates the statement in a text field while it is being typed. Edits
+ * restart a short delay, after which the text is checked on a background
+ * thread and any errors are marked in the field, with their messages in its
+ * tool tip. A statement found to be valid is also compiled into a table
+ * for the current table options, and classified if it has at most
+ * MAX_LINES_TO_CLASSIFY rows, so constructing it does not have to do any
+ * of this again.
+ */
+public class LiveStatementValidator implements DocumentListener, ActionListener {
+    public static int DELAY = 300;
+    public static long MAX_LINES_TO_CLASSIFY = 1L << 16;
+
+    private static final Highlighter.HighlightPainter errorPainter =
+        new DefaultHighlighter.DefaultHighlightPainter(new Color(255, 190, 190));
+
+    private final JTextField textField;
+    private final Timer timer;
+    private final ExecutorService executor;
+    private final List<Object> highlights;
+    private volatile int generation;
+    private PreparedStatement preparedStatement;
+    private int displayMethod;
+    private boolean removeParentheses, alphabetizePropositions;
+
+    public LiveStatementValidator(final JTextField textField) {
+        this.textField = textField;
+        highlights = new ArrayList<Object>();
+        timer = new Timer(DELAY, this);
+        timer.setRepeats(false);
+        executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "Statement Validator");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }
+        });
+        textField.getDocument().addDocumentListener(this);
+    }
+
+    public void insertUpdate(final DocumentEvent de) {
+        textChanged();
+    }
+
+    public void removeUpdate(final DocumentEvent de) {
+        textChanged();
+    }
+
+    public void changedUpdate(final DocumentEvent de) { }
+
+    /**
+     * Sets the options tables are constructed with, and prepares the
+     * statement in the field again for them.
+     */
+    public void setTableOptions(final int displayMethod, final boolean removeParentheses,
+        final boolean alphabetizePropositions) {
+
+        if ((displayMethod == this.displayMethod) &&
+            (removeParentheses == this.removeParentheses) &&
+            (alphabetizePropositions == this.alphabetizePropositions))
+            return;
+        this.displayMethod = displayMethod;
+        this.removeParentheses = removeParentheses;
+        this.alphabetizePropositions = alphabetizePropositions;
+        if (textField.getDocument().getLength() > 0)
+            textChanged();
+    }
+
+    /**
+     * Returns the given statement if it was already prepared in the
+     * background with the given table options, or null otherwise. A
+     * statement is handed out only once, as its parser and table then
+     * belong to the caller.
+     */
+    public PreparedStatement takePreparedStatement(final String statement,
+        final int displayMethod, final boolean removeParentheses,
+        final boolean alphabetizePropositions) {
+
+        final PreparedStatement prepared = preparedStatement;
+        if ((prepared == null) || (!prepared.text.equals(statement)) ||
+            (prepared.displayMethod != displayMethod) ||
+            (prepared.removeParentheses != removeParentheses) ||
+            (prepared.alphabetizePropositions != alphabetizePropositions))
+            return null;
+        preparedStatement = null;
+        return prepared;
+    }
+
+    public void actionPerformed(final ActionEvent ae) {
+        final int currentGeneration = generation;
+        final String text = textField.getText();
+        // The options are read here, on the event thread.
+        final int currentDisplayMethod = displayMethod;
+        final boolean currentRemoveParentheses = removeParentheses,
+            currentAlphabetizePropositions = alphabetizePropositions;
+        executor.execute(new Runnable() {
+            public void run() {
+                if (currentGeneration == generation)
+                    validate(text, currentGeneration, currentDisplayMethod,
+                        currentRemoveParentheses, currentAlphabetizePropositions);
+            }
+        });
+    }
+
+    private void textChanged() {
+        generation++;
+        preparedStatement = null;
+        timer.restart();
+    }
+
+    private void validate(final String text, final int currentGeneration,
+        final int displayMethod, final boolean removeParentheses,
+        final boolean alphabetizePropositions) {
+
+        final Scanner scanner = new Scanner(text);
+        try {
+            scanner.tokenize();
+            scanner.reformat();
+            final Parser parser = new Parser(scanner.getTokenStream());
+            parser.parse();
+            PreparedStatement prepared = null;
+            if (scanner.getStatement().length() > 0) {
+                // Tables are cached under the statement as it was before
+                // any parentheses were removed.
+                final String statement = parser.getStatement();
+                if (removeParentheses)
+                    parser.removeUnnecessaryParentheses();
+                final TruthTable truthTable = new TruthTable(parser.getStatement(),
+                    parser.getPostfixStream(), displayMethod, alphabetizePropositions);
+                int evaluation = TruthTable.UNDEFINED;
+                if ((truthTable.getNumberOfLines() <= MAX_LINES_TO_CLASSIFY) &&
+                    (currentGeneration == generation))
+                    evaluation = truthTable.createClassifier().classify();
+                prepared = new PreparedStatement(text.trim(), statement, parser, truthTable,
+                    evaluation, displayMethod, removeParentheses, alphabetizePropositions);
+            }
+            publish(currentGeneration, prepared, new ArrayList<Diagnostic>(), null);
+        } catch (final ScannerException se) {
+            validateAll(text, currentGeneration);
+        } catch (final ParserException pe) {
+            validateAll(text, currentGeneration);
+        }
+    }
+
+    private void validateAll(final String text, final int currentGeneration) {
+        final StatementValidator validator = new StatementValidator();
+        final List<Diagnostic> diagnostics = validator.validate(text);
+        publish(currentGeneration, null, diagnostics, validator);
+    }
+
+    private void publish(final int currentGeneration, final PreparedStatement prepared,
+        final List<Diagnostic> diagnostics, final StatementValidator validator) {
+
+        // Selections are made against the text as typed, so parser
+        // positions, which refer to the reformatted statement, are mapped.
+        final int size = diagnostics.size();
+        final int[] starts = new int[size], ends = new int[size];
+        for (int i = 0; i < size; i++) {
+            final Diagnostic diagnostic = diagnostics.get(i);
+            if (diagnostic.selectAll()) {
+                starts[i] = 0;
+                ends[i] = Integer.MAX_VALUE;
+            } else if (diagnostic.getSource() == Diagnostic.SCANNER) {
+                starts[i] = diagnostic.getXValue() - 1;
+                ends[i] = diagnostic.getYValue();
+            } else {
+                starts[i] = validator.toInputPosition(diagnostic.getXValue() - 1);
+                ends[i] = starts[i] + 1;
+            }
+        }
+        EventQueue.invokeLater(new Runnable() {
+            public void run() {
+                if (currentGeneration != generation)
+                    return;
+                preparedStatement = prepared;
+                markErrors(diagnostics, starts, ends);
+            }
+        });
+    }
+
+    private void markErrors(final List<Diagnostic> diagnostics, final int[] starts,
+        final int[] ends) {
+
+        final Highlighter highlighter = textField.getHighlighter();
+        for (final Object highlight : highlights)
+            highlighter.removeHighlight(highlight);
+        highlights.clear();
+        if (diagnostics.isEmpty()) {
+            textField.setToolTipText(null);
+            return;
+        }
+        final int length = textField.getDocument().getLength();
+        final StringBuilder builder = new StringBuilder("<html>");
+        for (int i = 0; i < starts.length; i++) {
+            final int start = Math.max(0, Math.min(starts[i], length)),
+                end = Math.max(start, Math.min(ends[i], length));
+            if (end > start) {
+                try {
+                    highlights.add(highlighter.addHighlight(start, end, errorPainter));
+                } catch (final BadLocationException ble) { }
+            }
+            if (i > 0)
+                builder.append("<br>");
+            builder.append(escape(diagnostics.get(i).getMessage()));
+        }
+        textField.setToolTipText(builder.append("</html>").toString());
+    }
+
+    private static String escape(final String message) {
+        return message.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    public static class PreparedStatement {
+        private final String text, statement;
+        private final Parser parser;
+        private final TruthTable truthTable;
+        private final int evaluation, displayMethod;
+        private final boolean removeParentheses, alphabetizePropositions;
+
+        private PreparedStatement(final String text, final String statement,
+            final Parser parser, final TruthTable truthTable, final int evaluation,
+            final int displayMethod, final boolean removeParentheses,
+            final boolean alphabetizePropositions) {
+
+            this.text = text;
+            this.statement = statement;
+            this.parser = parser;
+            this.truthTable = truthTable;
+            this.evaluation = evaluation;
+            this.displayMethod = displayMethod;
+            this.removeParentheses = removeParentheses;
+            this.alphabetizePropositions = alphabetizePropositions;
+        }
+
+        /** Returns the reformatted statement, before parentheses were removed. */
+        public String getStatement() {
+            return statement;
+        }
+
+        public Parser getParser() {
+            return parser;
+        }
+
+        public TruthTable getTruthTable() {
+            return truthTable;
+        }
+
+        /** Returns the classification, or TruthTable.UNDEFINED if there is none yet. */
+        public int getEvaluation() {
+            return evaluation;
+        }
+    }
+}
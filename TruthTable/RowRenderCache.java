@@ -0,0 +1,282 @@
+/**
+ * Truth Table Constructor:
+ *     generates truth tables for statements in propositional logic
+ * Copyright (C) 2006, 2010, 2011  Brian S. Borowski
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * Email: brian_borowski AT yahoo DOT com
+ */
+
+import java.awt.Component;
+import java.awt.EventQueue;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import logic.TruthTable;
+import logic.TruthValue;
+
+/**
+ * Keeps the text of the most recently painted rows of a truth table, so that
+ * repainting a row does not evaluate and format it again. Rows are keyed by
+ * their index, and an entry is only used while the step-through state and
+ * the display method it was rendered with still apply; the least recently
+ * used are dropped past MAX_ROWS. Missing rows are rendered on a background
+ * thread, which repaints the owner as they arrive.
+ */
+public class RowRenderCache {
+    public static int MAX_ROWS = 4096,
+                      BATCH_SIZE = 64;
+
+    private static final ExecutorService executor =
+        Executors.newSingleThreadExecutor(new ThreadFactory() {
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "Row Renderer");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }
+        });
+
+    private final Component owner;
+    private final LinkedHashMap<RowKey, RenderedRow> rows;
+    private final RowKey probe;
+    private TruthTable truthTable;
+    private volatile int generation;
+    private long pendingFirstRow, pendingLastRow, pendingCurrentRow;
+    private int pendingColumn;
+    private boolean isPending;
+
+    public RowRenderCache(final Component owner) {
+        this.owner = owner;
+        rows = new LinkedHashMap<RowKey, RenderedRow>(MAX_ROWS << 1, 0.75f, true);
+        probe = new RowKey(0);
+    }
+
+    public void setTruthTable(final TruthTable truthTable) {
+        this.truthTable = truthTable;
+        clear();
+    }
+
+    /**
+     * Drops every row and abandons the rows being rendered.
+     */
+    public void clear() {
+        generation++;
+        rows.clear();
+        isPending = false;
+    }
+
+    /**
+     * Returns the given row if it was rendered for the given step-through
+     * state, or null otherwise.
+     */
+    public RenderedRow get(final long row, final boolean isComputed, final int maxColumn) {
+        // Look up with a reused key, so that painting does not box indices.
+        probe.row = row;
+        final RenderedRow rendered = rows.get(probe);
+        if ((rendered == null) || (!rendered.matches(truthTable, isComputed, maxColumn)))
+            return null;
+        return rendered;
+    }
+
+    /**
+     * Renders in the background the rows in the given range that are not
+     * cached for the given step-through state. A request replaces the one
+     * before it, unless that one is still rendering the same rows.
+     */
+    public void prefetch(final long firstRow, final long lastRow, final long currentRow,
+        final int currentColumn) {
+
+        if (truthTable == null) return;
+        long first = Math.max(0, firstRow),
+             last = Math.min(lastRow, truthTable.getNumberOfLines() - 1);
+        last = Math.min(last, first + (MAX_ROWS >> 1) - 1);
+        while ((first <= last) && (get(first, first <= currentRow, currentColumn) != null))
+            first++;
+        while ((last >= first) && (get(last, last <= currentRow, currentColumn) != null))
+            last--;
+        if (first > last) return;
+        if ((isPending) && (pendingFirstRow <= first) && (last <= pendingLastRow) &&
+            (pendingCurrentRow == currentRow) && (pendingColumn == currentColumn))
+            return;
+
+        final int currentGeneration = ++generation;
+        final TruthTable table = truthTable;
+        final long firstMissingRow = first, lastMissingRow = last;
+        isPending = true;
+        pendingFirstRow = first;
+        pendingLastRow = last;
+        pendingCurrentRow = currentRow;
+        pendingColumn = currentColumn;
+        executor.execute(new Runnable() {
+            public void run() {
+                List<RenderedRow> batch = new ArrayList<RenderedRow>(BATCH_SIZE);
+                for (long i = firstMissingRow; i <= lastMissingRow; i++) {
+                    if (currentGeneration != generation) return;
+                    batch.add(render(table, i, i <= currentRow, currentColumn));
+                    if ((batch.size() == BATCH_SIZE) || (i == lastMissingRow)) {
+                        publish(table, currentGeneration, batch, i == lastMissingRow);
+                        batch = new ArrayList<RenderedRow>(BATCH_SIZE);
+                    }
+                }
+            }
+        });
+    }
+
+    private void publish(final TruthTable table, final int currentGeneration,
+        final List<RenderedRow> batch, final boolean isLast) {
+
+        EventQueue.invokeLater(new Runnable() {
+            public void run() {
+                if (table != truthTable) return;
+                for (final RenderedRow rendered : batch)
+                    rows.put(new RowKey(rendered.row), rendered);
+                final Iterator<RenderedRow> iterator = rows.values().iterator();
+                while (rows.size() > MAX_ROWS) {
+                    iterator.next();
+                    iterator.remove();
+                }
+                if ((isLast) && (currentGeneration == generation))
+                    isPending = false;
+                owner.repaint();
+            }
+        });
+    }
+
+    /**
+     * Returns the number of characters taken by the row number, its closing
+     * parenthesis and the values of the propositions.
+     */
+    public static int getValuesLength(final TruthTable truthTable) {
+        int length = getNumberOfDigits(truthTable.getNumberOfLines() - 1) + 1;
+        for (int i = truthTable.getNumberOfPropositions() - 1; i >= 0; i--)
+            length += truthTable.getPropositionWidth(i) + 2;
+        return length;
+    }
+
+    /**
+     * Writes the given row into chars: the row number padded to the widest
+     * row number and followed by a parenthesis, the values of the
+     * propositions and, if the row is computed, its evaluation up to the
+     * given column. Nothing is allocated.
+     */
+    public static void format(final TruthTable truthTable, final long row,
+        final boolean isComputed, final int maxColumn, final char[] chars) {
+
+        final long numberOfLines = truthTable.getNumberOfLines();
+        final long interpretedPosition =
+            (truthTable.getDisplayMethod() == TruthValue.TRUE_FALSE) ?
+                numberOfLines - row - 1 : row;
+
+        final int labelLength = getNumberOfDigits(numberOfLines - 1);
+        long number = row;
+        int offset = labelLength;
+        do {
+            chars[--offset] = (char)('0' + (int)(number % 10));
+            number /= 10;
+        } while (number != 0);
+        while (offset > 0)
+            chars[--offset] = ' ';
+        chars[labelLength] = ')';
+
+        offset = truthTable.formatPropositionValues(interpretedPosition, chars, labelLength + 1);
+        if (isComputed)
+            truthTable.computeRow(interpretedPosition, maxColumn, chars, offset);
+    }
+
+    private static int getNumberOfDigits(long number) {
+        int digits = 1;
+        while (number >= 10) {
+            number /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    private static RenderedRow render(final TruthTable truthTable, final long row,
+        final boolean isComputed, final int maxColumn) {
+
+        int length = getValuesLength(truthTable);
+        if (isComputed)
+            length += truthTable.getRowFormatter().getRowLength();
+        final char[] chars = new char[length];
+        format(truthTable, row, isComputed, maxColumn, chars);
+        return new RenderedRow(truthTable, row, isComputed, maxColumn, chars);
+    }
+
+    /**
+     * A row index usable as a map key, which may be reused to look up keys
+     * without boxing.
+     */
+    static final class RowKey {
+        long row;
+
+        RowKey(final long row) {
+            this.row = row;
+        }
+
+        public int hashCode() {
+            return (int)(row ^ (row >>> 32));
+        }
+
+        public boolean equals(final Object object) {
+            return (object instanceof RowKey) && (((RowKey)object).row == row);
+        }
+    }
+
+    public static class RenderedRow {
+        private final TruthTable truthTable;
+        private final long row;
+        private final boolean isComputed;
+        private final int maxColumn, displayMethod;
+        private final char[] chars;
+
+        private RenderedRow(final TruthTable truthTable, final long row,
+            final boolean isComputed, final int maxColumn, final char[] chars) {
+
+            this.truthTable = truthTable;
+            this.row = row;
+            this.isComputed = isComputed;
+            this.maxColumn = maxColumn;
+            this.chars = chars;
+            displayMethod = truthTable.getDisplayMethod();
+        }
+
+        private boolean matches(final TruthTable truthTable, final boolean isComputed,
+            final int maxColumn) {
+
+            return (this.truthTable == truthTable) &&
+                   (displayMethod == truthTable.getDisplayMethod()) &&
+                   (this.isComputed == isComputed) &&
+                   ((!isComputed) || (this.maxColumn == maxColumn));
+        }
+
+        public boolean isComputed() {
+            return isComputed;
+        }
+
+        /** Returns the row as laid out by format; it must not be modified. */
+        public char[] getChars() {
+            return chars;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * Truth Table Constructor:
+ *     generates truth tables for statements in propositional logic
+ * Copyright (C) 2006, 2010, 2011  Brian S. Borowski
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * Email: brian_borowski AT yahoo DOT com
+ */
+
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import logic.TruthTable;
+
+/**
+ * Keeps pre-rendered strips of TILE_ROWS rows of a truth table, so that
+ * scrolling repaints the table by copying images instead of drawing every
+ * string again. A strip is drawn with a margin of one row above and below,
+ * which holds the parts of glyphs that extend beyond its rows. Strips are
+ * valid for one table, font size, set of view flags and scale, and are all
+ * dropped when any of these change; each strip also records the
+ * step-through state of its rows. The least recently used strips are dropped
+ * once they take more than MAX_BYTES.
+ */
+public class RowTileCache {
+    public static int TILE_ROWS = 32;
+    public static long MAX_BYTES = 32L << 20;
+
+    private final LinkedHashMap<RowRenderCache.RowKey, Tile> tiles;
+    private final RowRenderCache.RowKey probe;
+    private TruthTable truthTable;
+    private int fontSize, flags, width, scale;
+    private long numberOfBytes;
+
+    public RowTileCache() {
+        tiles = new LinkedHashMap<RowRenderCache.RowKey, Tile>(64, 0.75f, true);
+        probe = new RowRenderCache.RowKey(0);
+    }
+
+    /**
+     * Drops every tile unless they were rendered for the given table, font
+     * size, view flags, width and scale.
+     */
+    public void configure(final TruthTable truthTable, final int fontSize, final int flags,
+        final int width, final int scale) {
+
+        if ((truthTable != this.truthTable) || (fontSize != this.fontSize) ||
+            (flags != this.flags) || (width != this.width) || (scale != this.scale)) {
+            clear();
+            this.truthTable = truthTable;
+            this.fontSize = fontSize;
+            this.flags = flags;
+            this.width = width;
+            this.scale = scale;
+        }
+    }
+
+    public void clear() {
+        for (final Tile tile : tiles.values())
+            tile.image.flush();
+        tiles.clear();
+        numberOfBytes = 0;
+    }
+
+    /**
+     * Returns the tile with the given index if it was rendered for the given
+     * step-through state, or null otherwise.
+     */
+    public Tile get(final long index, final long currentRow, final int currentColumn) {
+        probe.row = index;
+        final Tile tile = tiles.get(probe);
+        if ((tile == null) || (!tile.matches(currentRow, currentColumn)))
+            return null;
+        return tile;
+    }
+
+    /**
+     * Returns a blank tile for the given index, reusing the image of a tile
+     * that would be dropped if one fits, or null if a tile would take more
+     * than MAX_BYTES.
+     */
+    public Tile create(final long index, final long currentRow, final int currentColumn,
+        final int height, final GraphicsConfiguration configuration) {
+
+        final int imageWidth = width * scale, imageHeight = height * scale;
+        final long bytes = 4L * imageWidth * imageHeight;
+        if ((bytes > MAX_BYTES) || (imageWidth <= 0) || (imageHeight <= 0)) return null;
+        probe.row = index;
+        BufferedImage image = null;
+        final Tile staleTile = tiles.remove(probe);
+        if (staleTile != null)
+            image = recycle(staleTile, image, imageWidth, imageHeight);
+        final Iterator<Tile> iterator = tiles.values().iterator();
+        while ((numberOfBytes + bytes > MAX_BYTES) && (iterator.hasNext())) {
+            final Tile tile = iterator.next();
+            iterator.remove();
+            image = recycle(tile, image, imageWidth, imageHeight);
+        }
+        if (image == null) {
+            image = (configuration != null) ?
+                configuration.createCompatibleImage(imageWidth, imageHeight, Transparency.OPAQUE) :
+                new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_RGB);
+        }
+        return new Tile(index, currentRow, currentColumn, image, bytes);
+    }
+
+    private BufferedImage recycle(final Tile tile, final BufferedImage image,
+        final int imageWidth, final int imageHeight) {
+
+        numberOfBytes -= tile.bytes;
+        if ((image == null) && (tile.image.getWidth() == imageWidth) &&
+            (tile.image.getHeight() == imageHeight))
+            return tile.image;
+        tile.image.flush();
+        return image;
+    }
+
+    /**
+     * Adds a tile returned by create once it has been rendered.
+     */
+    public void put(final Tile tile) {
+        tiles.put(new RowRenderCache.RowKey(tile.index), tile);
+        numberOfBytes += tile.bytes;
+    }
+
+    public static class Tile {
+        private final long index, computedRow, bytes;
+        private final int column;
+        private final BufferedImage image;
+
+        private Tile(final long index, final long currentRow, final int currentColumn,
+            final BufferedImage image, final long bytes) {
+
+            this.index = index;
+            this.image = image;
+            this.bytes = bytes;
+            computedRow = getComputedRow(index, currentRow);
+            column = getColumn(index, currentRow, currentColumn);
+        }
+
+        // Only the rows drawn in the tile, including the margins, matter.
+        private static long getComputedRow(final long index, final long currentRow) {
+            final long firstRow = index * TILE_ROWS;
+            return Math.max(firstRow - 2, Math.min(currentRow, firstRow + TILE_ROWS));
+        }
+
+        private static int getColumn(final long index, final long currentRow,
+            final int currentColumn) {
+
+            return (currentRow >= index * TILE_ROWS - 1) ? currentColumn : -2;
+        }
+
+        private boolean matches(final long currentRow, final int currentColumn) {
+            return (computedRow == getComputedRow(index, currentRow)) &&
+                   (column == getColumn(index, currentRow, currentColumn));
+        }
+
+        public BufferedImage getImage() {
+            return image;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+/**
+ * Truth Table Constructor:
+ *     generates truth tables for statements in propositional logic
+ * Copyright (C) 2006, 2010, 2011  Brian S. Borowski
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * Email: brian_borowski AT yahoo DOT com
+ */
+
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+
+import javax.swing.event.DocumentListener;
+import javax.swing.event.UndoableEditListener;
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.AttributeSet;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+import javax.swing.text.Position;
+import javax.swing.text.Segment;
+import javax.swing.text.SimpleAttributeSet;
+
+import logic.TruthTable;
+
+/**
+ * A read-only document holding the text version of a truth table without
+ * storing it. The lines above and below the rows are kept as strings, and
+ * since every row with computed columns has one length and every row
+ * without them another, the offset of any row is computed rather than
+ * stored, and a row is formatted only when its text is asked for. Lines
+ * are likewise elements created on demand, so a table of any number of
+ * rows takes the same memory. Changes are made by replacing the document.
+ */
+public class TruthTableDocument implements Document {
+    private final TruthTableTextArea textArea;
+    private final int displayMethod, numberOfCharsInMaxLine;
+    private final long numberOfLines;
+    private final String[] prefixLines, suffixLines;
+    private final int[] prefixStarts, suffixStarts;
+    private final int numberOfRows, numberOfComputedRows, computedRowLength, rowLength,
+                      rowsStart, suffixStart, length, maximumLineLength;
+    private final Element root;
+    private final Hashtable<Object, Object> properties;
+    private final List<DocumentListener> listeners;
+    private final StringBuilder rowBuilder;
+    private final long[] columnValues;
+    private final char[] rowCharArray;
+    private int cachedRow;
+    private String cachedRowText;
+
+    public TruthTableDocument(final TruthTableTextArea textArea, final TruthTable truthTable,
+        final long currentRow, final List<String> prefixLines, final List<String> suffixLines,
+        final int numberOfCharsInMaxLine) {
+
+        this.textArea = textArea;
+        this.numberOfCharsInMaxLine = numberOfCharsInMaxLine;
+        this.prefixLines = prefixLines.toArray(new String[prefixLines.size()]);
+        this.suffixLines = suffixLines.toArray(new String[suffixLines.size()]);
+        displayMethod = truthTable.getDisplayMethod();
+        numberOfLines = truthTable.getNumberOfLines();
+        numberOfRows = (int)numberOfLines;
+        numberOfComputedRows = (int)Math.max(0, Math.min(currentRow + 1, numberOfLines));
+        rowBuilder = new StringBuilder();
+        columnValues = new long[truthTable.getNumberOfColumnWords()];
+        rowCharArray = new char[truthTable.getRowFormatter().getRowLength()];
+        computedRowLength = getRowText(0, true).length();
+        rowLength = getRowText(0, false).length();
+        cachedRow = -1;
+
+        int offset = 0, maximum = 0;
+        prefixStarts = new int[this.prefixLines.length];
+        for (int i = 0; i < prefixStarts.length; i++) {
+            prefixStarts[i] = offset;
+            offset += this.prefixLines[i].length() + 1;
+            maximum = Math.max(maximum, this.prefixLines[i].length());
+        }
+        rowsStart = offset;
+        offset += numberOfComputedRows * (computedRowLength + 1) +
+            (numberOfRows - numberOfComputedRows) * (rowLength + 1);
+        suffixStart = offset;
+        suffixStarts = new int[this.suffixLines.length];
+        for (int i = 0; i < suffixStarts.length; i++) {
+            suffixStarts[i] = offset;
+            offset += this.suffixLines[i].length() + 1;
+            maximum = Math.max(maximum, this.suffixLines[i].length());
+        }
+        // The last line is not followed by a line break.
+        length = offset - 1;
+        if (numberOfComputedRows > 0)
+            maximum = Math.max(maximum, computedRowLength);
+        if (numberOfComputedRows < numberOfRows)
+            maximum = Math.max(maximum, rowLength);
+        maximumLineLength = maximum;
+
+        root = new LineElement(-1);
+        properties = new Hashtable<Object, Object>();
+        listeners = new ArrayList<DocumentListener>();
+    }
+
+    public int getMaximumLineLength() {
+        return maximumLineLength;
+    }
+
+    /**
+     * Returns the offset at which the given row of the table starts.
+     */
+    public int getRowStartOffset(final long row) {
+        return getLineStart(prefixLines.length + (int)Math.max(0, Math.min(row, numberOfRows - 1)));
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public void addDocumentListener(final DocumentListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeDocumentListener(final DocumentListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void addUndoableEditListener(final UndoableEditListener listener) { }
+
+    public void removeUndoableEditListener(final UndoableEditListener listener) { }
+
+    public Object getProperty(final Object key) {
+        return properties.get(key);
+    }
+
+    public void putProperty(final Object key, final Object value) {
+        if (value == null)
+            properties.remove(key);
+        else
+            properties.put(key, value);
+    }
+
+    public void remove(final int offset, final int length) { }
+
+    public void insertString(final int offset, final String str, final AttributeSet a) { }
+
+    public String getText(final int offset, final int length) throws BadLocationException {
+        final Segment segment = new Segment();
+        getText(offset, length, segment);
+        return segment.toString();
+    }
+
+    public void getText(final int offset, final int length, final Segment text)
+        throws BadLocationException {
+
+        if ((offset < 0) || (length < 0) || (offset + length > this.length + 1))
+            throw new BadLocationException("Invalid range", offset);
+        final StringBuilder builder = new StringBuilder(length);
+        final int end = offset + length;
+        int line = getLineIndex(offset);
+        while (builder.length() < length) {
+            if (line == getNumberOfLines()) {
+                // The implied line break at the end of the document.
+                builder.append('\n');
+                break;
+            }
+            final int lineStart = getLineStart(line);
+            final String lineText = getLineText(line);
+            final int from = Math.max(offset, lineStart) - lineStart,
+                to = Math.min(end, lineStart + lineText.length()) - lineStart;
+            if (to > from)
+                builder.append(lineText, from, to);
+            // The line break that ends the line, if it is in range.
+            if (end > lineStart + lineText.length())
+                builder.append('\n');
+            line++;
+        }
+        final char[] array = new char[length];
+        builder.getChars(0, length, array, 0);
+        text.array = array;
+        text.offset = 0;
+        text.count = length;
+    }
+
+    public Position getStartPosition() {
+        return createPosition(0);
+    }
+
+    public Position getEndPosition() {
+        return createPosition(length + 1);
+    }
+
+    public Position createPosition(final int offset) {
+        return new Position() {
+            public int getOffset() {
+                return offset;
+            }
+        };
+    }
+
+    public Element[] getRootElements() {
+        return new Element[] {root};
+    }
+
+    public Element getDefaultRootElement() {
+        return root;
+    }
+
+    public void render(final Runnable runnable) {
+        runnable.run();
+    }
+
+    private int getNumberOfLines() {
+        return prefixLines.length + numberOfRows + suffixLines.length;
+    }
+
+    private int getLineIndex(final int offset) {
+        if (offset < rowsStart)
+            return Math.max(0, findLine(prefixStarts, offset));
+        if (offset >= suffixStart)
+            return prefixLines.length + numberOfRows + findLine(suffixStarts, offset);
+        final int computedRowsLength = numberOfComputedRows * (computedRowLength + 1);
+        final int relativeOffset = offset - rowsStart;
+        final int row = (relativeOffset < computedRowsLength) ?
+            relativeOffset / (computedRowLength + 1) :
+            numberOfComputedRows + (relativeOffset - computedRowsLength) / (rowLength + 1);
+        return prefixLines.length + row;
+    }
+
+    private static int findLine(final int[] starts, final int offset) {
+        int low = 0, high = starts.length - 1;
+        while (low < high) {
+            final int middle = (low + high + 1) >>> 1;
+            if (starts[middle] <= offset)
+                low = middle;
+            else
+                high = middle - 1;
+        }
+        return low;
+    }
+
+    private int getLineStart(final int line) {
+        if (line < prefixLines.length)
+            return prefixStarts[line];
+        final int row = line - prefixLines.length;
+        if (row >= numberOfRows)
+            return suffixStarts[row - numberOfRows];
+        if (row < numberOfComputedRows)
+            return rowsStart + row * (computedRowLength + 1);
+        return rowsStart + numberOfComputedRows * (computedRowLength + 1) +
+            (row - numberOfComputedRows) * (rowLength + 1);
+    }
+
+    private String getLineText(final int line) {
+        if (line < prefixLines.length)
+            return prefixLines[line];
+        final int row = line - prefixLines.length;
+        if (row >= numberOfRows)
+            return suffixLines[row - numberOfRows];
+        // Painting asks for the same line several times in a row.
+        if (row != cachedRow) {
+            cachedRowText = getRowText(row, row < numberOfComputedRows);
+            cachedRow = row;
+        }
+        return cachedRowText;
+    }
+
+    private String getRowText(final int row, final boolean isComputed) {
+        rowBuilder.setLength(0);
+        textArea.getLine(row, displayMethod, numberOfLines, numberOfCharsInMaxLine,
+            isComputed, rowBuilder, columnValues, rowCharArray);
+        return rowBuilder.toString();
+    }
+
+    /**
+     * The root element when the index is -1, and otherwise the line with
+     * that index.
+     */
+    private class LineElement implements Element {
+        private final int index;
+
+        private LineElement(final int index) {
+            this.index = index;
+        }
+
+        public Document getDocument() {
+            return TruthTableDocument.this;
+        }
+
+        public Element getParentElement() {
+            return (index == -1) ? null : root;
+        }
+
+        public String getName() {
+            return (index == -1) ?
+                AbstractDocument.SectionElementName : AbstractDocument.ParagraphElementName;
+        }
+
+        public AttributeSet getAttributes() {
+            return SimpleAttributeSet.EMPTY;
+        }
+
+        public int getStartOffset() {
+            return (index == -1) ? 0 : getLineStart(index);
+        }
+
+        public int getEndOffset() {
+            if ((index == -1) || (index == getNumberOfLines() - 1))
+                return length + 1;
+            return getLineStart(index + 1);
+        }
+
+        public int getElementIndex(final int offset) {
+            if (index != -1)
+                return -1;
+            return Math.min(getLineIndex(Math.max(0, offset)), getNumberOfLines() - 1);
+        }
+
+        public int getElementCount() {
+            return (index == -1) ? getNumberOfLines() : 0;
+        }
+
+        public Element getElement(final int index) {
+            if ((this.index != -1) || (index < 0) || (index >= getNumberOfLines()))
+                return null;
+            return new LineElement(index);
+        }
+
+        public boolean isLeaf() {
+            return index != -1;
+        }
+    }
+}
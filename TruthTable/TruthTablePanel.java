@@ -22,51 +22,109 @@
  */
 
 import java.awt.Color;
+import java.awt.Container;
 import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Point;
 import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.event.MouseWheelListener;
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 
 import javax.imageio.ImageIO;
+import javax.swing.AbstractAction;
+import javax.swing.Action;
+import javax.swing.ActionMap;
 import javax.swing.JComponent;
+import javax.swing.JScrollPane;
+import javax.swing.JViewport;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 
 import logic.TruthTable;
-import logic.TruthValue;
 
+/**
+ * Paints the truth table as graphics. Tables whose height in pixels would not
+ * fit comfortably within a Swing component are scrolled virtually: the
+ * canvas is capped at MAX_CANVAS_HEIGHT, the scroll bar is scaled onto the
+ * whole table, and the panel keeps the number of lines scrolled off the top
+ * as a long, so that only the visible window is ever painted.
+ */
 public class TruthTablePanel extends JComponent implements Configurable {
     private static final long serialVersionUID = 1L;
+    public static int MAX_CANVAS_HEIGHT = 1 << 23;
     private final int fontStyle = Font.BOLD;
     private String[] columnOrderString;
     private Font font;
     private int fontSize = DEFAULT_FONT_SIZE, height, width, charWidth,
-            charHeight, tableWidth,  xOffset, yOffset, numberOfLines,
+            charHeight, tableWidth,  xOffset, yOffset, numberOfTrailingLines,
             numberOfPropositions, separatorYValue, evaluationXValue,
-            numberOfCharsInMaxLine, maxCharDescent, reductionValue, currentRow,
-            currentColumn;
+            numberOfCharsInMaxLine, maxCharDescent, reductionValue, currentColumn,
+            viewY, propositionsWidth, rowLength, mainColumnPosition, mainColumnXValue,
+            columnOrderColumn;
+    private int[] gridXValues;
+    private char[] rowChars;
+    private String[] columnOrderStrings;
+    private FontMetrics fontMetrics;
+    private long numberOfLines, currentRow, topLine;
     private boolean isMainColumnHighlighted, areRowNumbersShown,
-            areColumnNumbersShown, areAlternateRowsInColor;
+            areColumnNumbersShown, areAlternateRowsInColor, isScaled,
+            isWheelListenerInstalled;
     private String tableHeader;
     private TruthTable truthTable;
     private Rectangle clipRect;
+    private JViewport viewport;
+    private final RowRenderCache rowCache;
+    private final RowTileCache tileCache;
     private final Color rowColor = new Color(195, 225, 253);
+    private final ChangeListener viewportListener = new ChangeListener() {
+        public void stateChanged(final ChangeEvent e) {
+            if (isScaled) {
+                final int y = viewport.getViewPosition().y;
+                if (y != viewY) {
+                    // The scroll bar was moved by the user.
+                    viewY = y;
+                    topLine = toTopLine(y);
+                } else {
+                    topLine = Math.min(topLine, getMaxTopLine());
+                }
+            }
+        }
+    };
+    private final MouseWheelListener wheelListener = new MouseWheelListener() {
+        public void mouseWheelMoved(final MouseWheelEvent e) {
+            if (e.getScrollType() == MouseWheelEvent.WHEEL_UNIT_SCROLL) {
+                scrollByLines(e.getUnitsToScroll());
+            } else {
+                scrollByLines(e.getWheelRotation() * (long)getNumberOfVisibleLines());
+            }
+        }
+    };
 
     public TruthTablePanel() {
         font = FontManager.getFont(fontStyle, this.fontSize);
         clipRect = new Rectangle();
         reductionValue = 5;
+        rowCache = new RowRenderCache(this);
+        tileCache = new RowTileCache();
     }
 
     public TruthTablePanel(final TruthTable truthTable) {
+        this();
         setTruthTable(truthTable);
     }
 
     public void setTruthTable(final TruthTable truthTable) {
         this.truthTable = truthTable;
+        rowCache.setTruthTable(truthTable);
+        topLine = 0;
         computeValuesForPainting();
     }
 
@@ -78,12 +136,12 @@ public class TruthTablePanel extends JComponent implements Configurable {
         return width;
     }
 
-    public boolean setCurrentRow(final int currentRow) {
+    public boolean setCurrentRow(final long currentRow) {
         if ((truthTable == null) && (currentRow >= 0)) {
             this.currentRow = -1;
             return false;
         } else {
-            final int numberOfLines = truthTable.getNumberOfLines();
+            final long numberOfLines = truthTable.getNumberOfLines();
             if (currentRow >= numberOfLines) {
                 this.currentRow = numberOfLines - 1;
                 return false;
@@ -150,26 +208,126 @@ public class TruthTablePanel extends JComponent implements Configurable {
         this.areAlternateRowsInColor = areAlternateRowsInColor;
     }
 
+    /**
+     * Returns whether the table is too tall for the canvas, in which case
+     * the scroll bar is scaled onto the table.
+     */
+    public boolean isScaled() {
+        return isScaled;
+    }
+
+    /**
+     * Returns the index of the first row that is at least partly visible.
+     */
+    public long getFirstVisibleRow() {
+        final long line;
+        if (isScaled) {
+            line = topLine;
+        } else if (viewport != null) {
+            line = viewport.getViewPosition().y / Math.max(1, charHeight);
+        } else {
+            line = 0;
+        }
+        return Math.max(0, Math.min(line - 1, numberOfLines - 1));
+    }
+
+    /**
+     * Scrolls the table so that the given row is the first one shown below
+     * the header.
+     */
+    public void scrollToRow(final long row) {
+        if ((truthTable == null) || (viewport == null)) return;
+        final long clampedRow = Math.max(0, Math.min(row, numberOfLines - 1));
+        if (isScaled) {
+            scrollToLine(clampedRow + 1);
+        } else {
+            final int maxY = Math.max(0, height - viewport.getExtentSize().height),
+                y = (int)Math.min(charHeight * (clampedRow + 1), maxY);
+            viewport.setViewPosition(new Point(viewport.getViewPosition().x, y));
+        }
+    }
+
+    /**
+     * Replaces the scroll pane's keyboard actions for moving up and down by
+     * a unit, a block or to either end, so that they move by whole lines
+     * when the scroll bar is scaled. Otherwise the original actions are used.
+     */
+    public void installNavigationActions(final JScrollPane scrollPane) {
+        final ActionMap actionMap = scrollPane.getActionMap();
+        installNavigationAction(actionMap, "unitScrollUp", -1, false);
+        installNavigationAction(actionMap, "unitScrollDown", 1, false);
+        installNavigationAction(actionMap, "scrollUp", -1, true);
+        installNavigationAction(actionMap, "scrollDown", 1, true);
+        installNavigationAction(actionMap, "scrollHome", Long.MIN_VALUE, false);
+        installNavigationAction(actionMap, "scrollEnd", Long.MAX_VALUE, false);
+    }
+
+    private void installNavigationAction(final ActionMap actionMap, final String name,
+        final long lines, final boolean isBlock) {
+
+        final Action original = actionMap.get(name);
+        actionMap.put(name, new AbstractAction() {
+            private static final long serialVersionUID = 1L;
+
+            public void actionPerformed(final ActionEvent e) {
+                if (isScaled) {
+                    if (isBlock) {
+                        scrollByLines(lines * Math.max(1, getNumberOfVisibleLines() - 1));
+                    } else {
+                        scrollByLines(lines);
+                    }
+                } else if (original != null) {
+                    original.actionPerformed(e);
+                }
+            }
+        });
+    }
+
+    public void addNotify() {
+        super.addNotify();
+        final Container parent = getParent();
+        if (parent instanceof JViewport) {
+            viewport = (JViewport)parent;
+            viewport.addChangeListener(viewportListener);
+            updateScrollMode();
+        }
+    }
+
+    public void removeNotify() {
+        if (viewport != null) {
+            viewport.removeChangeListener(viewportListener);
+            viewport = null;
+        }
+        super.removeNotify();
+    }
+
     public Dimension getPreferredSize() {
         if (truthTable != null) {
-            final FontMetrics fontMetrics = getFontMetrics(font);
+            // The fonts are shared by FontManager, so their metrics are kept until the size changes.
+            if ((fontMetrics == null) || (fontMetrics.getFont() != font)) {
+                fontMetrics = getFontMetrics(font);
+                charWidth = fontMetrics.charWidth(' ');
+                charHeight = fontMetrics.getHeight() + 1;
+                maxCharDescent = fontMetrics.getMaxDescent();
+                xOffset = charWidth/2;
+                yOffset = charHeight/2;
+            }
             tableWidth = fontMetrics.stringWidth(tableHeader);
-            charWidth = fontMetrics.charWidth(' ');
-            charHeight = fontMetrics.getHeight() + 1;
-            maxCharDescent = fontMetrics.getMaxDescent();
-            xOffset = charWidth/2;
-            yOffset = charHeight/2;
             int rowDimension = tableHeader.length() * charWidth + 2 * xOffset,
-                colDimension = (numberOfLines + 1) * charHeight + yOffset;
+                trailingHeight = yOffset;
             if (areRowNumbersShown) {
                 rowDimension = (tableHeader.length() + getNumberOfCharsInMaxLine() + 1) *
                                charWidth + 2 * xOffset;
             }
             if (areColumnNumbersShown) {
                 columnOrderString = truthTable.getColumnOrderStrings(Integer.MAX_VALUE);
-                colDimension = (numberOfLines + 1) * charHeight + yOffset +
-                               columnOrderString.length * (charHeight - reductionValue);
+                trailingHeight += columnOrderString.length * (charHeight - reductionValue);
             }
+            numberOfTrailingLines = (trailingHeight + charHeight - 1) / charHeight;
+            // Past the maximum, the canvas stays put and the rows scroll through it.
+            isScaled = numberOfLines + 1 > (MAX_CANVAS_HEIGHT - trailingHeight) / charHeight;
+            final int colDimension = isScaled ? MAX_CANVAS_HEIGHT :
+                (int)(numberOfLines + 1) * charHeight + trailingHeight;
             return new Dimension(rowDimension, colDimension);
         } else {
             return new Dimension(0, 0);
@@ -177,132 +335,247 @@ public class TruthTablePanel extends JComponent implements Configurable {
     }
 
     public void paintComponent(final Graphics graphics) {
-        StringBuilder builder;
         graphics.setColor(Color.white);
         graphics.fillRect(0, 0, getWidth(), getHeight());
+        graphics.getClipBounds(clipRect);
+        if (isScaled) {
+            paintTable(graphics, viewY, topLine, false);
+        } else {
+            paintTable(graphics, 0, 0, false);
+        }
+    }
+
+    /**
+     * Paints the rows that intersect the clip, placing the given line of the
+     * table at the given y coordinate. Rows are evaluated here only if
+     * allowed, and otherwise taken from the row cache.
+     */
+    private void paintTable(final Graphics graphics, final int base, final long firstLine,
+        final boolean mayEvaluate) {
+
         if (truthTable != null) {
-            int xPosition = 3,
-                xValue,
-                mainColumnPosition = -1;
-            final int displayMethod = truthTable.getDisplayMethod();
-            int leftOffset = xOffset, interpretedPosition;
+            int xValue;
+            int leftOffset = xOffset;
 
             if (areRowNumbersShown) {
                 leftOffset += (charWidth * (numberOfCharsInMaxLine + 1));
             }
 
-            graphics.setColor(Color.black);
             graphics.setFont(font);
-            graphics.drawString(tableHeader, leftOffset, charHeight);
-            graphics.getClipBounds(clipRect);
 
             // Determine which rows needs to be painted.
-            int startRow = (clipRect.y - maxCharDescent) / charHeight - 1,
-                endRow = (clipRect.y + clipRect.height) / charHeight - 1;
+            final int clipTop = clipRect.y - base;
+            long startRow = firstLine + (clipTop - maxCharDescent) / charHeight - 1,
+                 endRow = firstLine + (clipTop + clipRect.height) / charHeight - 1;
             if (startRow < 0) startRow = 0;
             if (endRow >= numberOfLines) endRow = numberOfLines - 1;
 
-            int i = startRow;
-            for (i = startRow; i <= endRow; i++) {
-                if (displayMethod == TruthValue.TRUE_FALSE) {
-                    interpretedPosition = numberOfLines - i - 1;
-                } else {
-                    interpretedPosition = i;
-                }
-                final boolean[] binaryPropositionValues = truthTable.getBinaryFormat(interpretedPosition);
-                final int binaryLength = binaryPropositionValues.length,
-                    iPlus2 = i + 2;
-
-                builder = new StringBuilder();
-                if (areRowNumbersShown) {
-                    final String str = String.valueOf(i);
-                    final int strLength = str.length();
-                    for (int j = 0; j < numberOfCharsInMaxLine - strLength; j++) {
-                        builder.append(" ");
-                    }
-                    builder.append(i);
-                    builder.append(")");
-                    graphics.setColor(Color.GRAY);
-                    graphics.drawString(builder.toString(), xOffset, charHeight * iPlus2);
-                    graphics.setColor(Color.black);
-                }
-
-                // Alternate row color for ease of viewing.
-                if ((areAlternateRowsInColor) && (i % 2 != 0)) {
-                    graphics.setColor(rowColor);
-                    graphics.fillRect(leftOffset,
-                        charHeight * i + separatorYValue + 1, tableWidth + 1,
-                        charHeight);
-                    graphics.setColor(Color.black);
-                }
-
-                builder = new StringBuilder();
-                for (int j = 0; j < binaryLength; j++) {
-                    builder.append(" ");
-                    builder.append(TruthValue.getTruthValueString(binaryPropositionValues[j], displayMethod));
-                    builder.append(" ");
-                }
-                graphics.drawString(builder.toString(), leftOffset, charHeight * iPlus2);
+            final int scale = mayEvaluate ? 0 : getTileScale(graphics);
+            if (scale > 0) {
+                paintTiles(graphics, base, firstLine, startRow, endRow, scale);
+            } else {
+                paintRows(graphics, base, firstLine, startRow, endRow, mayEvaluate);
+            }
+            if ((!mayEvaluate) && (endRow >= startRow)) {
+                // Render the visible rows and those a screen above and below,
+                // as well as the rest of the tiles they are in.
+                final long margin = endRow - startRow + 1,
+                    tileRows = RowTileCache.TILE_ROWS;
+                rowCache.prefetch((startRow - margin) / tileRows * tileRows,
+                    ((endRow + margin) / tileRows + 1) * tileRows, currentRow, currentColumn);
+            }
 
-                if (i <= currentRow) {
-                    String rowString;
-                    if (currentColumn == Integer.MAX_VALUE) {
-                        rowString = truthTable.computeRow(interpretedPosition);
-                    } else {
-                        rowString = truthTable.computeRow(interpretedPosition, currentColumn);
-                    }
-                    xValue = evaluationXValue;
-                    if (isMainColumnHighlighted) {
-                        String substring;
-                        if (mainColumnPosition == -1) {
-                            mainColumnPosition = truthTable.getPositionOfMainColumn();
-                        }
-                        if (mainColumnPosition != 0) {
-                            substring = rowString.substring(0, mainColumnPosition);
-                            graphics.drawString(substring, xValue, charHeight * iPlus2);
-                            xValue += charWidth * substring.length();
-                        }
-
-                        substring = rowString.substring(mainColumnPosition, mainColumnPosition + 1);
-                        graphics.setColor(Color.red);
-                        graphics.drawString(substring, xValue, charHeight * iPlus2);
-
-                        xValue += charWidth * substring.length();
-                        substring = rowString.substring(mainColumnPosition + 1);
-                        graphics.setColor(Color.black);
-                        graphics.drawString(substring, xValue, charHeight * iPlus2);
-                    } else {
-                        graphics.drawString(rowString, xValue, charHeight * iPlus2);
-                    }
-                }
+            // The header never overlaps the first row, so it may come after it.
+            graphics.setColor(Color.black);
+            if (firstLine == 0) {
+                graphics.drawString(tableHeader, leftOffset, base + charHeight);
             }
-            if (areColumnNumbersShown) {
+            if ((areColumnNumbersShown) && (endRow == numberOfLines - 1)) {
                 graphics.setColor(Color.gray);
                 xValue = evaluationXValue;
-                final int stopOffPoint = charHeight * (i + 2),
+                final int stopOffPoint = base + charHeight * (int)(endRow - firstLine + 3),
                     reducedCharHeight = charHeight - reductionValue;
-                columnOrderString = truthTable.getColumnOrderStrings(currentColumn);
-                for (int k = 0; k < columnOrderString.length; k++) {
-                    graphics.drawString(columnOrderString[k], xValue, stopOffPoint + reducedCharHeight * k);
+                if ((columnOrderStrings == null) || (columnOrderColumn != currentColumn)) {
+                    columnOrderStrings = truthTable.getColumnOrderStrings(currentColumn);
+                    columnOrderColumn = currentColumn;
+                }
+                for (int k = 0; k < columnOrderStrings.length; k++) {
+                    graphics.drawString(columnOrderStrings[k], xValue, stopOffPoint + reducedCharHeight * k);
                 }
             }
 
             graphics.setColor(Color.blue);
-            graphics.drawLine(leftOffset, separatorYValue, tableWidth + leftOffset, separatorYValue);
+            if (firstLine < 2) {
+                final int separatorY = base + separatorYValue - charHeight * (int)firstLine;
+                graphics.drawLine(leftOffset, separatorY, tableWidth + leftOffset, separatorY);
+            }
             int extension = charHeight;
             if (areAlternateRowsInColor) extension = separatorYValue;
-            for (i = 0; i < numberOfPropositions; i++) {
-                xValue = charWidth * xPosition + (leftOffset - 1);
-                graphics.drawLine(xValue, yOffset, xValue, charHeight * (numberOfLines) + extension);
-                xPosition += 3;
+            // Keep the grid lines within the clip, where the coordinates fit in an int.
+            final long remainingLines = Math.min(numberOfLines - firstLine,
+                (clipTop + clipRect.height) / charHeight + 1);
+            final int lineTop = Math.max(clipRect.y,
+                    base + yOffset - charHeight * (int)Math.min(firstLine, 2)),
+                lineBottom = base + charHeight * (int)remainingLines + extension;
+            for (int i = 0; i < numberOfPropositions; i++) {
+                graphics.drawLine(gridXValues[i], lineTop, gridXValues[i], lineBottom);
+            }
+        }
+    }
+
+    /**
+     * Paints the given rows, placing the given line of the table at the
+     * given y coordinate. Rows are evaluated here only if allowed, and
+     * otherwise taken from the row cache.
+     */
+    private void paintRows(final Graphics graphics, final int base, final long firstLine,
+        final long startRow, final long endRow, final boolean mayEvaluate) {
+
+        int leftOffset = xOffset;
+        if (areRowNumbersShown) {
+            leftOffset += (charWidth * (numberOfCharsInMaxLine + 1));
+        }
+        graphics.setColor(Color.black);
+        final int valuesOffset = numberOfCharsInMaxLine + 1,
+            evaluationOffset = valuesOffset + propositionsWidth;
+        for (long i = startRow; i <= endRow; i++) {
+            final int baseline = base + charHeight * (int)(i - firstLine + 2);
+            final boolean isComputed = i <= currentRow;
+            final RowRenderCache.RenderedRow rendered =
+                mayEvaluate ? null : rowCache.get(i, isComputed, currentColumn);
+            final char[] chars;
+            final boolean hasEvaluation;
+            if (rendered != null) {
+                chars = rendered.getChars();
+                hasEvaluation = rendered.isComputed();
+            } else {
+                // Unless allowed to evaluate, draw the row without its
+                // evaluation until it has been rendered.
+                hasEvaluation = (mayEvaluate) && (isComputed);
+                RowRenderCache.format(truthTable, i, hasEvaluation, currentColumn, rowChars);
+                chars = rowChars;
+            }
+
+            if (areRowNumbersShown) {
+                graphics.setColor(Color.GRAY);
+                graphics.drawChars(chars, 0, valuesOffset, xOffset, baseline);
+                graphics.setColor(Color.black);
+            }
+
+            // Alternate row color for ease of viewing.
+            if ((areAlternateRowsInColor) && (i % 2 != 0)) {
+                graphics.setColor(rowColor);
+                graphics.fillRect(leftOffset,
+                    baseline - 2 * charHeight + separatorYValue + 1, tableWidth + 1,
+                    charHeight);
+                graphics.setColor(Color.black);
+            }
+
+            graphics.drawChars(chars, valuesOffset, propositionsWidth, leftOffset, baseline);
+
+            if (hasEvaluation) {
+                if (isMainColumnHighlighted) {
+                    if (mainColumnPosition != 0) {
+                        graphics.drawChars(chars, evaluationOffset, mainColumnPosition,
+                            evaluationXValue, baseline);
+                    }
+                    graphics.setColor(Color.red);
+                    graphics.drawChars(chars, evaluationOffset + mainColumnPosition, 1,
+                        mainColumnXValue, baseline);
+                    graphics.setColor(Color.black);
+                    graphics.drawChars(chars, evaluationOffset + mainColumnPosition + 1,
+                        rowLength - mainColumnPosition - 1, mainColumnXValue + charWidth, baseline);
+                } else {
+                    graphics.drawChars(chars, evaluationOffset, rowLength, evaluationXValue, baseline);
+                }
+            }
+        }
+    }
+
+    /**
+     * Paints the given rows by copying the tiles that hold them, rendering
+     * each tile once all of its rows are in the row cache. Rows of tiles that
+     * cannot be rendered yet are painted directly.
+     */
+    private void paintTiles(final Graphics graphics, final int base, final long firstLine,
+        final long startRow, final long endRow, final int scale) {
+
+        final int tileRows = RowTileCache.TILE_ROWS;
+        tileCache.configure(truthTable, fontSize, getViewFlags(), width, scale);
+        for (long index = startRow / tileRows; index <= endRow / tileRows; index++) {
+            final long firstRow = index * tileRows,
+                lastRow = Math.min(firstRow + tileRows, numberOfLines) - 1;
+            RowTileCache.Tile tile = tileCache.get(index, currentRow, currentColumn);
+            if ((tile == null) && (hasRenderedRows(firstRow - 1, lastRow + 1))) {
+                // The rows, with a margin of one row above and below them.
+                tile = tileCache.create(index, currentRow, currentColumn,
+                    charHeight * (int)(lastRow - firstRow + 3), getGraphicsConfiguration());
+                if (tile != null) {
+                    final Graphics2D tileGraphics = tile.getImage().createGraphics();
+                    tileGraphics.setRenderingHints(((Graphics2D)graphics).getRenderingHints());
+                    tileGraphics.scale(scale, scale);
+                    tileGraphics.setColor(Color.white);
+                    tileGraphics.fillRect(0, 0, width, charHeight * (int)(lastRow - firstRow + 3));
+                    tileGraphics.setFont(font);
+                    paintRows(tileGraphics, charHeight - separatorYValue - 1, firstRow,
+                        Math.max(0, firstRow - 1), Math.min(numberOfLines - 1, lastRow + 1), false);
+                    tileGraphics.dispose();
+                    tileCache.put(tile);
+                }
+            }
+            if (tile != null) {
+                // Copy the rows, and the margins at either end of the table.
+                final int numberOfTileRows = (int)(lastRow - firstRow + 1),
+                    top = (firstRow == 0) ? 0 : charHeight,
+                    bottom = charHeight * (numberOfTileRows + ((lastRow == numberOfLines - 1) ? 2 : 1)),
+                    y = base + charHeight * (int)(firstRow - firstLine - 1) + separatorYValue + 1;
+                graphics.drawImage(tile.getImage(), 0, y + top, width, y + bottom,
+                    0, top * scale, width * scale, bottom * scale, null);
+            } else {
+                paintRows(graphics, base, firstLine, Math.max(startRow, firstRow),
+                    Math.min(endRow, lastRow), false);
+            }
+        }
+    }
+
+    private boolean hasRenderedRows(final long firstRow, final long lastRow) {
+        for (long i = Math.max(0, firstRow); i <= Math.min(lastRow, numberOfLines - 1); i++) {
+            if (rowCache.get(i, i <= currentRow, currentColumn) == null) {
+                return false;
             }
         }
+        return true;
+    }
+
+    private int getViewFlags() {
+        return (areRowNumbersShown ? 1 : 0) | (areColumnNumbersShown ? 2 : 0) |
+               (areAlternateRowsInColor ? 4 : 0) | (isMainColumnHighlighted ? 8 : 0);
+    }
+
+    /**
+     * Returns the scale at which tiles match the device pixels of the given
+     * graphics, or 0 if tiles cannot be copied onto it exactly.
+     */
+    private static int getTileScale(final Graphics graphics) {
+        if (!(graphics instanceof Graphics2D)) return 0;
+        final AffineTransform transform = ((Graphics2D)graphics).getTransform();
+        final double scale = transform.getScaleX();
+        if ((transform.getShearX() != 0) || (transform.getShearY() != 0) ||
+            (transform.getScaleY() != scale) || (scale < 1) || (scale != Math.rint(scale)) ||
+            (transform.getTranslateX() != Math.rint(transform.getTranslateX())) ||
+            (transform.getTranslateY() != Math.rint(transform.getTranslateY()))) {
+            return 0;
+        }
+        return (int)scale;
     }
 
     public void saveContentsAsImage(final String filename, final String imageType, final BufferedImage image)
         throws IOException, OutOfMemoryError {
         final Graphics2D g2 = image.createGraphics();
-        this.paint(g2);
+        g2.setColor(Color.white);
+        g2.fillRect(0, 0, image.getWidth(), image.getHeight());
+        clipRect.setBounds(0, 0, image.getWidth(), image.getHeight());
+        paintTable(g2, 0, 0, true);
         g2.dispose();
         ImageIO.write(image, imageType, new File(filename));
     }
@@ -318,11 +591,97 @@ public class TruthTablePanel extends JComponent implements Configurable {
             setPreferredSize(canvasSize);
             numberOfCharsInMaxLine = getNumberOfCharsInMaxLine();
             separatorYValue = (2 * charHeight + yOffset) / 2;
-            evaluationXValue = (numberOfPropositions * 3 + 1) * charWidth + xOffset;
+            int leftOffset = xOffset;
             if (areRowNumbersShown) {
-                evaluationXValue += (charWidth * (numberOfCharsInMaxLine + 1));
+                leftOffset += (charWidth * (numberOfCharsInMaxLine + 1));
+            }
+            // Every glyph of the monospaced font advances by charWidth.
+            propositionsWidth = 0;
+            gridXValues = new int[numberOfPropositions];
+            for (int i = 0; i < numberOfPropositions; i++) {
+                propositionsWidth += truthTable.getPropositionWidth(i) + 2;
+                gridXValues[i] = charWidth * propositionsWidth + (leftOffset - 1);
+            }
+            evaluationXValue = (propositionsWidth + 1) * charWidth + leftOffset;
+            rowLength = truthTable.getRowFormatter().getRowLength();
+            mainColumnPosition = truthTable.getPositionOfMainColumn();
+            mainColumnXValue = evaluationXValue + charWidth * mainColumnPosition;
+            rowChars = new char[RowRenderCache.getValuesLength(truthTable) + rowLength];
+            columnOrderStrings = null;
+            updateScrollMode();
+        }
+    }
+
+    /**
+     * Blitting would copy rows that are no longer there when a single pixel
+     * of the scaled scroll bar skips many lines, and the wheel has to move
+     * by lines rather than pixels.
+     */
+    private void updateScrollMode() {
+        if (viewport == null) return;
+        viewport.setScrollMode(isScaled ? JViewport.SIMPLE_SCROLL_MODE : JViewport.BLIT_SCROLL_MODE);
+        if (isScaled != isWheelListenerInstalled) {
+            if (isScaled) {
+                addMouseWheelListener(wheelListener);
+            } else {
+                removeMouseWheelListener(wheelListener);
             }
+            isWheelListenerInstalled = isScaled;
         }
+        if (isScaled) {
+            viewY = -1;
+            scrollToLine(topLine);
+        }
+    }
+
+    private void scrollByLines(final long lines) {
+        final long maxTopLine = getMaxTopLine();
+        if (lines > maxTopLine - topLine) {
+            scrollToLine(maxTopLine);
+        } else {
+            scrollToLine(Math.max(0, topLine + lines));
+        }
+    }
+
+    private void scrollToLine(final long line) {
+        topLine = Math.max(0, Math.min(line, getMaxTopLine()));
+        if (viewport != null) {
+            final Point position = viewport.getViewPosition();
+            viewY = toViewY(topLine);
+            if (position.y != viewY) {
+                viewport.setViewPosition(new Point(position.x, viewY));
+            }
+        }
+        repaint();
+    }
+
+    private int getNumberOfVisibleLines() {
+        if ((viewport == null) || (charHeight == 0)) return 1;
+        return Math.max(1, viewport.getExtentSize().height / charHeight);
+    }
+
+    private long getMaxTopLine() {
+        return Math.max(0, numberOfLines + 1 + numberOfTrailingLines - getNumberOfVisibleLines());
+    }
+
+    private int getViewRange() {
+        if (viewport == null) return 0;
+        return Math.max(0, height - viewport.getExtentSize().height);
+    }
+
+    private long toTopLine(final int y) {
+        final int range = getViewRange();
+        if (range == 0) return 0;
+        final long maxTopLine = getMaxTopLine();
+        if (y >= range) return maxTopLine;
+        return Math.min(maxTopLine, Math.round((double)y / range * maxTopLine));
+    }
+
+    private int toViewY(final long line) {
+        final long maxTopLine = getMaxTopLine();
+        if (maxTopLine == 0) return 0;
+        if (line >= maxTopLine) return getViewRange();
+        return (int)Math.round((double)line / maxTopLine * getViewRange());
     }
 
     private int getNumberOfCharsInMaxLine() {
@@ -21,50 +21,77 @@
  * Email: brian_borowski AT yahoo DOT com
  */
 
+import java.awt.Component;
 import java.awt.Font;
+import java.awt.Rectangle;
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.ArrayList;
 
 import javax.swing.JTextArea;
-
+import javax.swing.plaf.basic.BasicTextAreaUI;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Element;
+import javax.swing.text.PlainDocument;
+import javax.swing.text.PlainView;
+import javax.swing.text.View;
+
+import logic.RowFormatter;
 import logic.TruthTable;
 import logic.TruthValue;
 
+/**
+ * Shows the text version of a truth table. The text is held by a
+ * TruthTableDocument, which formats rows only as they are painted or
+ * copied, so any table whose text fits in a document can be shown.
+ */
 public class TruthTableTextArea extends JTextArea implements Configurable {
     private static final long serialVersionUID = 1L;
+    // Rows are laid out in int pixels, so the tallest line bounds the table.
+    private static final int MAX_LINE_HEIGHT = 2 * MAX_FONT_SIZE;
     private int fontSize = DEFAULT_FONT_SIZE;
-    private final int fontStyle = Font.PLAIN, maxLines;
-    private int currentRow, currentColumn;
+    private final int fontStyle = Font.PLAIN;
+    private int currentColumn;
+    private long currentRow;
     private String[] columnOrderString;
     private boolean isMainColumnHighlighted, areRowNumbersShown,
                     areColumnNumbersShown, resetCaretToTop;
     private TruthTable truthTable;
+    private char[] rowCharArray;
+    private long[] columnValues;
 
-    public TruthTableTextArea(final int maxLines) {
-        this.maxLines = maxLines;
+    public TruthTableTextArea() {
         this.columnOrderString = null;
         setFont(new Font(Font.MONOSPACED, fontStyle, this.fontSize));
     }
 
-    public TruthTableTextArea(final TruthTable truthTable, final int maxLines) {
-        this(maxLines);
+    public TruthTableTextArea(final TruthTable truthTable) {
+        this();
         setTruthTable(truthTable, true);
     }
 
+    public void updateUI() {
+        setUI(new TruthTableTextAreaUI());
+    }
+
     public void setTruthTable(final TruthTable truthTable, final boolean resetCaretToTop) {
         this.columnOrderString = null;
         this.truthTable = truthTable;
         this.resetCaretToTop = resetCaretToTop;
+        if (truthTable != null) {
+            rowCharArray = new char[truthTable.getRowFormatter().getRowLength()];
+            columnValues = new long[truthTable.getNumberOfColumnWords()];
+        }
     }
 
-    public boolean setCurrentRow(final int currentRow) {
+    public boolean setCurrentRow(final long currentRow) {
         if ((truthTable == null) && (currentRow >= 0)) {
             this.currentRow = -1;
             return false;
         } else {
-            final int numberOfLines = truthTable.getNumberOfLines();
+            final long numberOfLines = truthTable.getNumberOfLines();
             if (currentRow >= numberOfLines) {
                 this.currentRow = numberOfLines - 1;
                 return false;
@@ -91,50 +118,84 @@ public class TruthTableTextArea extends JTextArea implements Configurable {
         }
     }
 
+    /**
+     * Returns whether the text of the table fits within the offsets of a
+     * document and the pixel height of a component.
+     */
+    public boolean canDisplay(final TruthTable truthTable) {
+        final long numberOfLines = truthTable.getNumberOfLines();
+        final int numberOfCharsInMaxLine = String.valueOf(numberOfLines - 1).length();
+        final StringBuilder builder = new StringBuilder();
+        // Leave room for the row numbers and for the lines around the rows.
+        for (int i = numberOfCharsInMaxLine + 1; i > 0; i--)
+            builder.append(' ');
+        truthTable.appendPropositionValues(0, true, builder);
+        final long lineLength = builder.length() +
+            truthTable.getRowFormatter().getRowLength() + 3;
+        final long numberOfTextLines = numberOfLines + truthTable.getColumnInfoHeight() + 3;
+        return (numberOfTextLines * lineLength < Integer.MAX_VALUE) &&
+               (numberOfTextLines * MAX_LINE_HEIGHT < Integer.MAX_VALUE);
+    }
+
     public void redraw() {
-        if ((truthTable == null) || (truthTable.getNumberOfLines() > maxLines)) {
-            setText("");
+        if ((truthTable == null) || (!canDisplay(truthTable))) {
+            setDocument(new PlainDocument());
             return;
         }
-        final StringBuilder builder = new StringBuilder();
         final int numberOfCharsInMaxLine = getNumberOfCharsInMaxLine();
-
+        final ArrayList<String> prefixLines = new ArrayList<String>(),
+            suffixLines = new ArrayList<String>();
+        StringBuilder builder = new StringBuilder();
         if (isMainColumnHighlighted) {
             getHighlightedLine(numberOfCharsInMaxLine, builder);
-            builder.append("\n");
+            prefixLines.add(builder.toString());
         }
-
+        builder = new StringBuilder();
         padLeftMargin(builder, numberOfCharsInMaxLine);
         builder.append(truthTable.getHeader(true));
-        builder.append("\n");
+        prefixLines.add(builder.toString());
+        builder = new StringBuilder();
         padLeftMargin(builder, numberOfCharsInMaxLine);
         builder.append(truthTable.getHeaderSeparator());
-        builder.append("\n");
-
-        final int numberOfLines = truthTable.getNumberOfLines(),
-            displayMethod = truthTable.getDisplayMethod(),
-            columnInfoHeight = truthTable.getColumnInfoHeight();
-        for (int i = 0; i < numberOfLines; i++) {
-            getLine(i, displayMethod, numberOfLines, numberOfCharsInMaxLine,
-                builder);
-            if (i != numberOfLines - 1)
-                builder.append("\n");
-        }
+        prefixLines.add(builder.toString());
         if (areColumnNumbersShown) {
-            builder.append("\n");
             int i = 0;
+            builder = new StringBuilder();
             while (getColumnOrderLine(i, numberOfCharsInMaxLine, builder)) {
-                if (i != columnInfoHeight - 1)
-                    builder.append("\n");
+                suffixLines.add(builder.toString());
+                builder = new StringBuilder();
                 i++;
             }
+            if (suffixLines.isEmpty())
+                suffixLines.add("");
         }
-
-        setText(builder.toString());
-        if (resetCaretToTop) {
-            setCaretPosition(0);
+        final int caretPosition = getCaretPosition();
+        final TruthTableDocument document = new TruthTableDocument(this, truthTable,
+            currentRow, prefixLines, suffixLines, numberOfCharsInMaxLine);
+        setDocument(document);
+        if (resetCaretToTop)
             resetCaretToTop = false;
-        }
+        else
+            setCaretPosition(Math.min(caretPosition, document.getLength()));
+    }
+
+    /**
+     * Moves the caret to the start of the given row and scrolls that row to
+     * the top of the view. Uses modelToView rather than modelToView2D,
+     * which is not available on Java 8.
+     */
+    @SuppressWarnings("deprecation")
+    public void scrollToRow(final long row) {
+        if (!(getDocument() instanceof TruthTableDocument)) return;
+        final int offset = ((TruthTableDocument)getDocument()).getRowStartOffset(row);
+        setCaretPosition(offset);
+        try {
+            final Rectangle rowRect = modelToView(offset);
+            if (rowRect != null) {
+                rowRect.height = getVisibleRect().height;
+                scrollRectToVisible(rowRect);
+            }
+        } catch (final BadLocationException ble) { }
     }
 
     public void saveTableToFile(final String filename) throws IOException {
@@ -158,10 +219,10 @@ public class TruthTableTextArea extends JTextArea implements Configurable {
         builder.append(truthTable.getHeaderSeparator());
         printWriter.println(builder.toString());
 
-        final int numberOfLines = truthTable.getNumberOfLines(),
-            displayMethod = truthTable.getDisplayMethod(),
+        final long numberOfLines = truthTable.getNumberOfLines();
+        final int displayMethod = truthTable.getDisplayMethod(),
             columnInfoHeight = truthTable.getColumnInfoHeight();
-        for (int i = 0; i < numberOfLines; i++) {
+        for (long i = 0; i < numberOfLines; i++) {
             builder = new StringBuilder();
             getLine(i, displayMethod, numberOfLines, numberOfCharsInMaxLine,
                 builder);
@@ -244,7 +305,8 @@ public class TruthTableTextArea extends JTextArea implements Configurable {
         padLeftMargin(builder, numberOfCharsInMaxLine);
         final int numberOfPropositions = truthTable.getNumberOfPropositions();
         for (int i = 0; i < numberOfPropositions; i++)
-            builder.append("    ");
+            for (int j = truthTable.getPropositionWidth(i) + 3; j > 0; j--)
+                builder.append(" ");
         builder.append(" ");
         final int mainColumnPosition =
             truthTable.getPositionOfMainColumn();
@@ -256,9 +318,21 @@ public class TruthTableTextArea extends JTextArea implements Configurable {
             builder.append(" ");
     }
 
-    public void getLine(final int i, final int displayMethod, final int numberOfLines,
+    public void getLine(final long i, final int displayMethod, final long numberOfLines,
         final int numberOfCharsInMaxLine, final StringBuilder builder) {
-        int interpretedPosition;
+        getLine(i, displayMethod, numberOfLines, numberOfCharsInMaxLine, i <= currentRow,
+            builder, columnValues, rowCharArray);
+    }
+
+    /**
+     * Appends a row, with its computed columns if isComputed is true, using
+     * the given buffers so that rows may be formatted for a document while
+     * the table is being saved.
+     */
+    public void getLine(final long i, final int displayMethod, final long numberOfLines,
+        final int numberOfCharsInMaxLine, final boolean isComputed,
+        final StringBuilder builder, final long[] columnValues, final char[] rowCharArray) {
+        long interpretedPosition;
         if (displayMethod == TruthValue.TRUE_FALSE)
             interpretedPosition = numberOfLines - i - 1;
         else
@@ -271,24 +345,13 @@ public class TruthTableTextArea extends JTextArea implements Configurable {
             builder.append(i);
             builder.append(")");
         }
-        final boolean[] binaryPropositionValues =
-            truthTable.getBinaryFormat(interpretedPosition);
-        final int binaryLength = binaryPropositionValues.length;
-        for (int j = 0; j < binaryLength; j++) {
+        truthTable.appendPropositionValues(interpretedPosition, true, builder);
+        if (isComputed) {
             builder.append(" ");
-            builder.append(
-                TruthValue.getTruthValueString(binaryPropositionValues[j],
-                displayMethod));
-            builder.append(" |");
-        }
-        if (i <= currentRow) {
-            builder.append(" ");
-            String rowString;
-            if (currentColumn == Integer.MAX_VALUE)
-                rowString = truthTable.computeRow(interpretedPosition);
-            else
-                rowString = truthTable.computeRow(interpretedPosition, currentColumn);
-            builder.append(rowString);
+            final RowFormatter rowFormatter = truthTable.getRowFormatter();
+            truthTable.getColumnValues(interpretedPosition, columnValues, 0);
+            rowFormatter.format(columnValues, 0, currentColumn, rowCharArray);
+            builder.append(rowCharArray);
             builder.append(" ");
         }
     }
@@ -300,9 +363,44 @@ public class TruthTableTextArea extends JTextArea implements Configurable {
         padLeftMargin(builder, numberOfCharsInMaxLine);
         final int numberOfPropositions = truthTable.getNumberOfPropositions();
         for (int i = 0; i < numberOfPropositions; i++)
-            builder.append("    ");
+            for (int j = truthTable.getPropositionWidth(i) + 3; j > 0; j--)
+                builder.append(" ");
         builder.append(" ");
         builder.append(columnOrderString[lineNumber]);
         return true;
     }
 }
+
+class TruthTableTextAreaUI extends BasicTextAreaUI {
+
+    public View create(final Element element) {
+        if (element.getDocument() instanceof TruthTableDocument)
+            return new TruthTableView(element);
+        return super.create(element);
+    }
+}
+
+/**
+ * Paints only the lines in the clip, as PlainView does, but takes the
+ * preferred width from the document instead of measuring every line.
+ */
+class TruthTableView extends PlainView {
+
+    public TruthTableView(final Element element) {
+        super(element);
+    }
+
+    protected void updateMetrics() {
+        final Component host = getContainer();
+        metrics = host.getFontMetrics(host.getFont());
+    }
+
+    public float getPreferredSpan(final int axis) {
+        if (axis == View.X_AXIS) {
+            updateMetrics();
+            final TruthTableDocument document = (TruthTableDocument)getDocument();
+            return document.getMaximumLineLength() * metrics.charWidth('0') + 1;
+        }
+        return super.getPreferredSpan(axis);
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Truth Table Constructor:
+ *     generates truth tables for statements in propositional logic
+ * Copyright (C) 2006, 2010, 2011  Brian S. Borowski
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * Email: brian_borowski AT yahoo DOT com
+ */
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import logic.BddClassifier;
+import logic.Classifier;
+import logic.ParallelClassifier;
+import logic.SatClassifier;
+import logic.TruthTable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the classification engines on the same statements: row
+ * enumeration, the decision diagram and the SAT solver.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ClassifierBenchmark {
+    @Param({Statements.EXAMPLES, Statements.SYNTHETIC})
+    public String corpus;
+
+    @Param({"8", "16", "20"})
+    public int propositions;
+
+    @Param({"8"})
+    public int depth;
+
+    @Param({"mixed"})
+    public String operators;
+
+    @Param({"enumerate", "bdd", "sat"})
+    public String engine;
+
+    private TruthTable[] truthTables;
+
+    @Setup
+    public void setUp() throws Exception {
+        final String[] statements = Statements.create(corpus, propositions, depth, operators);
+        truthTables = new TruthTable[statements.length];
+        for (int i = 0; i < statements.length; i++) {
+            truthTables[i] = Statements.createTruthTable(statements[i], false);
+        }
+    }
+
+    @Benchmark
+    public void classify(final Blackhole blackhole) {
+        for (int i = 0; i < truthTables.length; i++) {
+            blackhole.consume(createClassifier(truthTables[i]).classify());
+        }
+    }
+
+    private Classifier createClassifier(final TruthTable truthTable) {
+        if ("bdd".equals(engine)) {
+            return new BddClassifier(truthTable);
+        } else if ("sat".equals(engine)) {
+            return new SatClassifier(truthTable);
+        } else {
+            return new ParallelClassifier(truthTable);
+        }
+    }
+}
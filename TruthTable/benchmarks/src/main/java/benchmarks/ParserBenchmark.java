@@ -0,0 +1,104 @@
+/**
+ * Truth Table Constructor:
+ *     generates truth tables for statements in propositional logic
+ * Copyright (C) 2006, 2010, 2011  Brian S. Borowski
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * Email: brian_borowski AT yahoo DOT com
+ */
+package benchmarks;
+
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+import logic.Parser;
+import logic.ParserException;
+import logic.ScannerException;
+import logic.Token;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Throughput of Parser.parse over pre-scanned token streams, and of
+ * Parser.removeUnnecessaryParentheses. The latter moves token positions,
+ * so it rescans its input each time; subtract the scan and parse scores
+ * to isolate it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParserBenchmark {
+    @Param({Statements.EXAMPLES, Statements.SYNTHETIC})
+    public String corpus;
+
+    @Param({"8"})
+    public int propositions;
+
+    @Param({"8"})
+    public int depth;
+
+    @Param({"mixed"})
+    public String operators;
+
+    private String[] statements;
+    private LinkedList<Token>[] tokenStreams;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        statements = Statements.create(corpus, propositions, depth, operators);
+        tokenStreams = new LinkedList[statements.length];
+        for (int i = 0; i < statements.length; i++) {
+            tokenStreams[i] = Statements.scan(statements[i]);
+        }
+    }
+
+    @Benchmark
+    public void parse(final Blackhole blackhole) throws ParserException {
+        for (int i = 0; i < tokenStreams.length; i++) {
+            final Parser parser = new Parser(tokenStreams[i]);
+            parser.parse();
+            blackhole.consume(parser.getPostfixStream());
+        }
+    }
+
+    @Benchmark
+    public void scanParseAndRemoveParentheses(final Blackhole blackhole)
+        throws ScannerException, ParserException {
+
+        for (int i = 0; i < statements.length; i++) {
+            final Parser parser = new Parser(Statements.scan(statements[i]));
+            parser.parse();
+            parser.removeUnnecessaryParentheses();
+            blackhole.consume(parser.getStatement());
+        }
+    }
+}
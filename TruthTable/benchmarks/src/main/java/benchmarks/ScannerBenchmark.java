@@ -0,0 +1,95 @@
+/**
+ * Truth Table Constructor:
+ *     generates truth tables for statements in propositional logic
+ * Copyright (C) 2006, 2010, 2011  Brian S. Borowski
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * Email: brian_borowski AT yahoo DOT com
+ */
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import logic.Scanner;
+import logic.ScannerException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Throughput of Scanner.tokenize and Scanner.reformat. Since reformat
+ * rewrites the token stream in place, it can only be measured together
+ * with the tokenize that precedes it; subtract the tokenize score to
+ * isolate it. The unicode, latex and words operator mixes spell the
+ * connectives with aliases from the OperatorRegistry; compare them with
+ * mixed to see what the aliases cost.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScannerBenchmark {
+    @Param({Statements.EXAMPLES, Statements.SYNTHETIC})
+    public String corpus;
+
+    @Param({"8"})
+    public int propositions;
+
+    @Param({"8"})
+    public int depth;
+
+    @Param({"mixed", "unicode", "latex", "words"})
+    public String operators;
+
+    private String[] statements;
+
+    @Setup
+    public void setUp() throws Exception {
+        statements = Statements.create(corpus, propositions, depth, operators);
+    }
+
+    @Benchmark
+    public void tokenize(final Blackhole blackhole) throws ScannerException {
+        for (int i = 0; i < statements.length; i++) {
+            final Scanner scanner = new Scanner(statements[i]);
+            scanner.tokenize();
+            blackhole.consume(scanner.getTokenStream());
+        }
+    }
+
+    @Benchmark
+    public void tokenizeAndReformat(final Blackhole blackhole) throws ScannerException {
+        for (int i = 0; i < statements.length; i++) {
+            final Scanner scanner = new Scanner(statements[i]);
+            scanner.tokenize();
+            scanner.reformat();
+            blackhole.consume(scanner.getTokenStream());
+        }
+    }
+}
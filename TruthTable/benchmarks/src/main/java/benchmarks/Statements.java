@@ -0,0 +1,165 @@
+/**
+ * Truth Table Constructor:
+ *     generates truth tables for statements in propositional logic
+ * Copyright (C) 2006, 2010, 2011  Brian S. Borowski
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * Email: brian_borowski AT yahoo DOT com
+ */
+package benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.Random;
+
+import logic.Parser;
+import logic.ParserException;
+import logic.Scanner;
+import logic.ScannerException;
+import logic.Token;
+import logic.TruthTable;
+import logic.TruthValue;
+
+/**
+ * Supplies the statements the benchmarks run over: either the bundled
+ * examples corpus or synthetic statements of a controlled size, built as
+ * complete binary trees of the given depth over the given number of
+ * propositions with connectives drawn from an operator mix. The size
+ * parameters are ignored for the examples corpus.
+ */
+public class Statements {
+    public static final String EXAMPLES = "examples",
+                               SYNTHETIC = "synthetic";
+    private static final String[][] OPERATOR_MIXES = {
+        {"mixed", "&", "v", "+", "=>", "<=>"},
+        {"and-or", "&", "v"},
+        {"xor-iff", "+", "<=>"},
+        {"implication", "=>", "<=>", "&"},
+        {"unicode", "\u2227", "\u2228", "\u2295", "\u2192", "\u2194"},
+        {"latex", "\\land", "\\lor", "\\oplus", "\\to", "\\iff"},
+        {"words", "and", "or", "xor", "implies", "iff"}
+    };
+    private static final long SEED = 0x5EED;
+
+    private Statements() {
+    }
+
+    public static String[] create(final String corpus, final int numberOfPropositions,
+        final int depth, final String operatorMix) throws IOException {
+
+        if (EXAMPLES.equals(corpus)) {
+            return readExamples();
+        } else if (SYNTHETIC.equals(corpus)) {
+            return new String[] {generate(numberOfPropositions, depth, operatorMix)};
+        } else {
+            throw new IllegalArgumentException("Unknown corpus: " + corpus);
+        }
+    }
+
+    public static String[] readExamples() throws IOException {
+        final InputStream stream = Statements.class.getResourceAsStream("/Examples.txt");
+        if (stream == null) {
+            throw new IOException("Examples.txt is missing from the class path.");
+        }
+        final ArrayList<String> statements = new ArrayList<String>();
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(stream, "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().length() > 0) {
+                    statements.add(line);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return statements.toArray(new String[statements.size()]);
+    }
+
+    public static String generate(final int numberOfPropositions, final int depth,
+        final String operatorMix) {
+
+        final String[] operators = getOperators(operatorMix);
+        final Random random = new Random(SEED);
+        final StringBuilder builder = new StringBuilder();
+        final int[] counter = new int[1];
+        append(builder, random, operators, numberOfPropositions, depth, counter);
+        return builder.toString();
+    }
+
+    private static void append(final StringBuilder builder, final Random random,
+        final String[] operators, final int numberOfPropositions, final int depth,
+        final int[] counter) {
+
+        if (random.nextInt(5) == 0) {
+            builder.append("~");
+        }
+        if (depth == 0) {
+            // Cycle through the propositions so that every one of them occurs.
+            builder.append(getPropositionName(counter[0]++ % numberOfPropositions,
+                numberOfPropositions));
+        } else {
+            builder.append("(");
+            append(builder, random, operators, numberOfPropositions, depth - 1, counter);
+            builder.append(" ");
+            builder.append(operators[1 + random.nextInt(operators.length - 1)]);
+            builder.append(" ");
+            append(builder, random, operators, numberOfPropositions, depth - 1, counter);
+            builder.append(")");
+        }
+    }
+
+    private static String getPropositionName(final int proposition, final int numberOfPropositions) {
+        if (numberOfPropositions <= 26) {
+            return String.valueOf((char)('A' + proposition));
+        } else {
+            return "p" + proposition;
+        }
+    }
+
+    private static String[] getOperators(final String operatorMix) {
+        for (int i = 0; i < OPERATOR_MIXES.length; i++) {
+            if (OPERATOR_MIXES[i][0].equals(operatorMix)) {
+                return OPERATOR_MIXES[i];
+            }
+        }
+        throw new IllegalArgumentException("Unknown operator mix: " + operatorMix);
+    }
+
+    public static LinkedList<Token> scan(final String statement) throws ScannerException {
+        final Scanner scanner = new Scanner(statement);
+        scanner.tokenize();
+        scanner.reformat();
+        return scanner.getTokenStream();
+    }
+
+    public static TruthTable createTruthTable(final String statement, final boolean removeParentheses)
+        throws ScannerException, ParserException {
+
+        final Parser parser = new Parser(scan(statement));
+        parser.parse();
+        if (removeParentheses) {
+            parser.removeUnnecessaryParentheses();
+        }
+        return new TruthTable(parser.getStatement(), parser.getPostfixStream(),
+            TruthValue.TRUE_FALSE, true);
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Truth Table Constructor:
+ *     generates truth tables for statements in propositional logic
+ * Copyright (C) 2006, 2010, 2011  Brian S. Borowski
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * Email: brian_borowski AT yahoo DOT com
+ */
+package logic;
+
+/**
+ * Classifies a statement by building its reduced ordered binary decision
+ * diagram, whose root is a terminal exactly when the statement is a
+ * tautology or a contradiction. Statements whose diagram outgrows the
+ * node limit are handed to the SAT classifier instead.
+ */
+public class BddClassifier implements Classifier {
+    private final TruthTable truthTable;
+    private volatile BinaryDecisionDiagram diagram;
+    private volatile SatClassifier fallback;
+    private volatile boolean isCancelled;
+
+    public BddClassifier(final TruthTable truthTable) {
+        this.truthTable = truthTable;
+    }
+
+    public int classify() {
+        final CompiledStatement compiledStatement = truthTable.getReducedStatement();
+        final BinaryDecisionDiagram currentDiagram = new BinaryDecisionDiagram(
+            compiledStatement.getNumberOfPropositions(), BinaryDecisionDiagram.DEFAULT_NODE_LIMIT);
+        diagram = currentDiagram;
+        if ((!isCancelled) && (currentDiagram.build(compiledStatement))) {
+            if (currentDiagram.isTautology()) {
+                return truthTable.getEvaluation(true);
+            } else if (currentDiagram.isContradiction()) {
+                return truthTable.getEvaluation(false);
+            } else {
+                return TruthTable.CONDITIONAL;
+            }
+        }
+        diagram = null;
+        if (isCancelled) {
+            return TruthTable.UNDEFINED;
+        }
+        final SatClassifier satClassifier = new SatClassifier(truthTable);
+        fallback = satClassifier;
+        if (isCancelled) {
+            return TruthTable.UNDEFINED;
+        }
+        return satClassifier.classify();
+    }
+
+    public BinaryDecisionDiagram getBinaryDecisionDiagram() {
+        return diagram;
+    }
+
+    public void cancel() {
+        isCancelled = true;
+        final BinaryDecisionDiagram currentDiagram = diagram;
+        if (currentDiagram != null) {
+            currentDiagram.cancel();
+        }
+        final SatClassifier satClassifier = fallback;
+        if (satClassifier != null) {
+            satClassifier.cancel();
+        }
+    }
+
+    public long getProgress() {
+        return 0;
+    }
+
+    public long getMaximumProgress() {
+        return 0;
+    }
+}
@@ -36,6 +36,10 @@ public class BiconditionalToken extends Token implements BinaryEvaluator {
         return 2;
     }
 
+    public int getOpcode() {
+        return CompiledStatement.BICONDITIONAL;
+    }
+
     public ValueToken evaluate(final ValueToken token1, final ValueToken token2) {
         ValueToken returnToken = null;
         if (token1.getValue() == token2.getValue()) {
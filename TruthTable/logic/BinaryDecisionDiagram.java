@@ -0,0 +1,292 @@
+/**
+ * Truth Table Constructor:
+ *     generates truth tables for statements in propositional logic
+ * Copyright (C) 2006, 2010, 2011  Brian S. Borowski
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * Email: brian_borowski AT yahoo DOT com
+ */
+package logic;
+
+import java.math.BigInteger;
+
+/**
+ * A reduced ordered binary decision diagram of a compiled statement. Nodes
+ * are hash-consed in a unique table and the results of apply are kept in
+ * a direct-mapped operation cache. Variables are ordered like the columns
+ * of the truth table, so the first proposition is tested at the root.
+ */
+public class BinaryDecisionDiagram {
+    public static final int FALSE = 0,
+                            TRUE  = 1;
+    public static int DEFAULT_NODE_LIMIT = 1 << 21;
+    private static final int INITIAL_CAPACITY = 1 << 10, CACHE_SIZE = 1 << 16;
+
+    private final int numberOfVariables, nodeLimit;
+    private int[] variables, lows, highs, uniqueTable;
+    private final int[] cacheOperations, cacheOperands1, cacheOperands2, cacheResults;
+    private int numberOfNodes, root;
+    private volatile boolean isCancelled;
+
+    public BinaryDecisionDiagram(final int numberOfVariables, final int nodeLimit) {
+        this.numberOfVariables = numberOfVariables;
+        this.nodeLimit = nodeLimit;
+        variables = new int[INITIAL_CAPACITY];
+        lows = new int[INITIAL_CAPACITY];
+        highs = new int[INITIAL_CAPACITY];
+        uniqueTable = new int[INITIAL_CAPACITY << 1];
+        cacheOperations = new int[CACHE_SIZE];
+        cacheOperands1 = new int[CACHE_SIZE];
+        cacheOperands2 = new int[CACHE_SIZE];
+        cacheResults = new int[CACHE_SIZE];
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            cacheOperations[i] = -1;
+        }
+        for (int i = 0; i < uniqueTable.length; i++) {
+            uniqueTable[i] = -1;
+        }
+        variables[FALSE] = variables[TRUE] = numberOfVariables;
+        numberOfNodes = 2;
+        root = FALSE;
+    }
+
+    public BinaryDecisionDiagram(final CompiledStatement compiledStatement) {
+        this(compiledStatement.getNumberOfPropositions(), DEFAULT_NODE_LIMIT);
+        build(compiledStatement);
+    }
+
+    /**
+     * Builds the diagram of the statement, returning false if it would
+     * need more than the node limit or if the build was cancelled.
+     */
+    public boolean build(final CompiledStatement compiledStatement) {
+        final int numberOfInstructions = compiledStatement.getNumberOfInstructions();
+        final int[] nodes = new int[numberOfInstructions];
+        try {
+            for (int i = 0; i < numberOfInstructions; i++) {
+                final int operand1 = compiledStatement.getOperand1(i),
+                          operand2 = compiledStatement.getOperand2(i),
+                          opcode = compiledStatement.getOpcode(i);
+                switch (opcode) {
+                    case CompiledStatement.LOAD:
+                        nodes[i] = getVariable(numberOfVariables - operand1 - 1);
+                        break;
+                    case CompiledStatement.CONSTANT:
+                        nodes[i] = (operand1 != 0) ? TRUE : FALSE;
+                        break;
+                    case CompiledStatement.NEGATION:
+                        nodes[i] = not(nodes[operand1]);
+                        break;
+                    default:
+                        nodes[i] = apply(opcode, nodes[operand1], nodes[operand2]);
+                        break;
+                }
+            }
+        } catch (final NodeLimitException nle) {
+            root = -1;
+            return false;
+        }
+        root = nodes[numberOfInstructions - 1];
+        return true;
+    }
+
+    public void cancel() {
+        isCancelled = true;
+    }
+
+    public boolean isBuilt() {
+        return root != -1;
+    }
+
+    public int getRoot() {
+        return root;
+    }
+
+    public int getNumberOfNodes() {
+        return numberOfNodes;
+    }
+
+    public boolean isTautology() {
+        return root == TRUE;
+    }
+
+    public boolean isContradiction() {
+        return root == FALSE;
+    }
+
+    public boolean evaluate(final long row) {
+        int node = root;
+        while (node > TRUE) {
+            if (((row >>> (numberOfVariables - variables[node] - 1)) & 1L) != 0) {
+                node = highs[node];
+            } else {
+                node = lows[node];
+            }
+        }
+        return node == TRUE;
+    }
+
+    public BigInteger getNumberOfSatisfyingRows() {
+        // Children are always created before their parents, so a single
+        // pass in creation order counts every node after its children.
+        final BigInteger[] counts = new BigInteger[Math.max(root, TRUE) + 1];
+        counts[FALSE] = BigInteger.ZERO;
+        counts[TRUE] = BigInteger.ONE;
+        for (int i = TRUE + 1; i <= root; i++) {
+            final int low = lows[i], high = highs[i], variable = variables[i];
+            counts[i] = counts[low].shiftLeft(variables[low] - variable - 1).add(
+                        counts[high].shiftLeft(variables[high] - variable - 1));
+        }
+        return counts[root].shiftLeft(variables[root]);
+    }
+
+    public int getVariable(final int variable) {
+        return makeNode(variable, FALSE, TRUE);
+    }
+
+    public int not(final int node) {
+        return apply(CompiledStatement.NEGATION, node, TRUE);
+    }
+
+    public int apply(final int opcode, int a, int b) {
+        switch (opcode) {
+            case CompiledStatement.NEGATION:
+                if (a <= TRUE) return a ^ 1;
+                break;
+            case CompiledStatement.CONJUNCTION:
+                if ((a == FALSE) || (b == FALSE)) return FALSE;
+                if ((a == TRUE) || (a == b)) return b;
+                if (b == TRUE) return a;
+                break;
+            case CompiledStatement.INCLUSIVE_DISJUNCTION:
+                if ((a == TRUE) || (b == TRUE)) return TRUE;
+                if ((a == FALSE) || (a == b)) return b;
+                if (b == FALSE) return a;
+                break;
+            case CompiledStatement.EXCLUSIVE_DISJUNCTION:
+                if (a == b) return FALSE;
+                if (a == FALSE) return b;
+                if (b == FALSE) return a;
+                if (a == TRUE) return not(b);
+                if (b == TRUE) return not(a);
+                break;
+            case CompiledStatement.CONDITIONAL:
+                if ((a == FALSE) || (b == TRUE) || (a == b)) return TRUE;
+                if (a == TRUE) return b;
+                if (b == FALSE) return not(a);
+                break;
+            case CompiledStatement.BICONDITIONAL:
+                if (a == b) return TRUE;
+                if (a == TRUE) return b;
+                if (b == TRUE) return a;
+                if (a == FALSE) return not(b);
+                if (b == FALSE) return not(a);
+                break;
+            default: break;
+        }
+        if ((opcode != CompiledStatement.NEGATION) &&
+            (opcode != CompiledStatement.CONDITIONAL) && (a > b)) {
+            final int swap = a;
+            a = b;
+            b = swap;
+        }
+        final int slot = hash(opcode, a, b) & (CACHE_SIZE - 1);
+        if ((cacheOperations[slot] == opcode) && (cacheOperands1[slot] == a) &&
+            (cacheOperands2[slot] == b)) {
+            return cacheResults[slot];
+        }
+        final int variableA = variables[a], variableB = variables[b],
+                  variable = Math.min(variableA, variableB);
+        final int a0 = (variableA == variable) ? lows[a] : a,
+                  a1 = (variableA == variable) ? highs[a] : a,
+                  b0 = (variableB == variable) ? lows[b] : b,
+                  b1 = (variableB == variable) ? highs[b] : b;
+        final int result = makeNode(variable, apply(opcode, a0, b0), apply(opcode, a1, b1));
+        cacheOperations[slot] = opcode;
+        cacheOperands1[slot] = a;
+        cacheOperands2[slot] = b;
+        cacheResults[slot] = result;
+        return result;
+    }
+
+    private int makeNode(final int variable, final int low, final int high) {
+        if (low == high) {
+            return low;
+        }
+        final int mask = uniqueTable.length - 1;
+        int slot = hash(variable, low, high) & mask;
+        while (uniqueTable[slot] != -1) {
+            final int node = uniqueTable[slot];
+            if ((variables[node] == variable) && (lows[node] == low) && (highs[node] == high)) {
+                return node;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if ((numberOfNodes >= nodeLimit) || (isCancelled)) {
+            throw new NodeLimitException();
+        }
+        if (numberOfNodes == variables.length) {
+            growNodes();
+        }
+        final int node = numberOfNodes++;
+        variables[node] = variable;
+        lows[node] = low;
+        highs[node] = high;
+        uniqueTable[slot] = node;
+        if (numberOfNodes << 1 > uniqueTable.length) {
+            rehash();
+        }
+        return node;
+    }
+
+    private void growNodes() {
+        final int capacity = variables.length << 1;
+        final int[] newVariables = new int[capacity], newLows = new int[capacity],
+                    newHighs = new int[capacity];
+        System.arraycopy(variables, 0, newVariables, 0, numberOfNodes);
+        System.arraycopy(lows, 0, newLows, 0, numberOfNodes);
+        System.arraycopy(highs, 0, newHighs, 0, numberOfNodes);
+        variables = newVariables;
+        lows = newLows;
+        highs = newHighs;
+    }
+
+    private void rehash() {
+        uniqueTable = new int[uniqueTable.length << 1];
+        final int mask = uniqueTable.length - 1;
+        for (int i = 0; i < uniqueTable.length; i++) {
+            uniqueTable[i] = -1;
+        }
+        for (int node = TRUE + 1; node < numberOfNodes; node++) {
+            int slot = hash(variables[node], lows[node], highs[node]) & mask;
+            while (uniqueTable[slot] != -1) {
+                slot = (slot + 1) & mask;
+            }
+            uniqueTable[slot] = node;
+        }
+    }
+
+    private static int hash(final int x, final int y, final int z) {
+        int h = x * 0x9E3779B1 + y;
+        h = h * 0x85EBCA6B + z;
+        return h ^ (h >>> 15);
+    }
+
+    private static class NodeLimitException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+}
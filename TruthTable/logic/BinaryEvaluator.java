@@ -24,4 +24,5 @@ package logic;
 
 public interface BinaryEvaluator {
     public ValueToken evaluate(ValueToken token1, ValueToken token2);
+    public int getOpcode();
 }
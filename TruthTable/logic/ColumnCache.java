@@ -0,0 +1,75 @@
+/**
+ * Truth Table Constructor:
+ *     generates truth tables for statements in propositional logic
+ * Copyright (C) 2006, 2010, 2011  Brian S. Borowski
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * Email: brian_borowski AT yahoo DOT com
+ */
+package logic;
+
+/**
+ * The values of every operator column of a truth table, stored column-major
+ * as one bitset per column. Bit j of word w of a column is the value of the
+ * column in row 64 * w + j. The bitsets are filled with the bit-sliced
+ * evaluator, so reading back any cell afterwards is a shift and a mask.
+ */
+public class ColumnCache {
+    private final long[][] columns;
+    private final int numberOfColumns;
+
+    public ColumnCache(final CompiledStatement compiledStatement,
+        final int numberOfWords, final long wordMask) {
+
+        numberOfColumns = compiledStatement.getNumberOfColumns();
+        columns = new long[numberOfColumns][numberOfWords];
+        final int[] columnInstructions = new int[numberOfColumns];
+        for (int i = 0; i < numberOfColumns; i++) {
+            columnInstructions[i] = compiledStatement.getColumnInstruction(i);
+        }
+        final long[] values = compiledStatement.createWordBuffer();
+        for (int word = 0; word < numberOfWords; word++) {
+            compiledStatement.evaluateWord(word, values);
+            for (int i = 0; i < numberOfColumns; i++) {
+                columns[i][word] = values[columnInstructions[i]] & wordMask;
+            }
+        }
+    }
+
+    public static long getSizeInBytes(final int numberOfColumns, final int numberOfWords) {
+        return ((long)numberOfColumns * numberOfWords) << 3;
+    }
+
+    public boolean getValue(final int column, final long row) {
+        return ((columns[column][(int)(row >>> 6)] >>> row) & 1L) != 0;
+    }
+
+    public long[] getColumn(final int column) {
+        return columns[column];
+    }
+
+    public void getColumnValues(final long row, final long[] columnValues, final int offset) {
+        final int numberOfColumnWords = (numberOfColumns + 63) >>> 6;
+        for (int i = 0; i < numberOfColumnWords; i++) {
+            columnValues[offset + i] = 0;
+        }
+        final int word = (int)(row >>> 6);
+        for (int i = numberOfColumns - 1; i >= 0; i--) {
+            columnValues[offset + (i >>> 6)] |= ((columns[i][word] >>> row) & 1L) << i;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+/**
+ * Truth Table Constructor:
+ *     generates truth tables for statements in propositional logic
+ * Copyright (C) 2006, 2010, 2011  Brian S. Borowski
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * Email: brian_borowski AT yahoo DOT com
+ */
+package logic;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.ListIterator;
+
+/**
+ * A postfix stream compiled into a flat program of primitive instructions.
+ * Each instruction stores its result in its own slot of a caller-supplied
+ * value buffer, so that rows can be evaluated without allocating and the
+ * values of the operator columns can be read back for display.
+ * The same program can also be run bit-sliced, with each slot holding a
+ * 64-bit word whose bit j is the value in row 64 * word + j.
+ * Instructions are hash-consed while compiling, so identical subformulas
+ * share one instruction and are evaluated once; the operands of the
+ * commutative connectives are put in a canonical order first. Every column
+ * of the displayed statement maps to the instruction computing its value.
+ */
+public class CompiledStatement {
+    public static final int LOAD                  = 0,
+                            CONSTANT              = 1,
+                            NEGATION              = 2,
+                            CONJUNCTION           = 3,
+                            INCLUSIVE_DISJUNCTION = 4,
+                            EXCLUSIVE_DISJUNCTION = 5,
+                            CONDITIONAL           = 6,
+                            BICONDITIONAL         = 7;
+    private static final long[] PROPOSITION_PATTERNS = {
+        0xAAAAAAAAAAAAAAAAL, 0xCCCCCCCCCCCCCCCCL, 0xF0F0F0F0F0F0F0F0L,
+        0xFF00FF00FF00FF00L, 0xFFFF0000FFFF0000L, 0xFFFFFFFF00000000L
+    };
+    private final int numberOfInstructions, numberOfPropositions, rootPosition;
+    private final int[] opcodes, operands1, operands2, columnInstructions, columnPositions,
+                        originalShifts;
+
+    public CompiledStatement(final LinkedList<Token> postfixStream,
+        final int[] propositionPositions,
+        final int numberOfPropositions) {
+
+        final int size = postfixStream.size();
+        this.numberOfPropositions = numberOfPropositions;
+        opcodes = new int[size];
+        operands1 = new int[size];
+        operands2 = new int[size];
+        final int[] stack = new int[size], positions = new int[size],
+                    columns = new int[size];
+        int capacity = 16;
+        while (capacity < size << 1) {
+            capacity <<= 1;
+        }
+        final int[] instructionTable = new int[capacity];
+        final int mask = capacity - 1;
+        Arrays.fill(instructionTable, -1);
+        int top = 0, pc = 0, numberOfColumns = 0, lastPosition = 0;
+
+        final ListIterator<Token> iterator = postfixStream.listIterator(0);
+        while (iterator.hasNext()) {
+            final Token token = iterator.next();
+            final int tokenType = token.getType();
+            int opcode, operand1 = 0, operand2 = 0;
+            if (tokenType == Token.PROPOSITION) {
+                final int i = propositionPositions[((PropositionToken)token).getId()];
+                opcode = LOAD;
+                operand1 = numberOfPropositions - i - 1;
+                lastPosition = token.getPosition();
+            } else if (tokenType == Token.CONSTANT) {
+                opcode = CONSTANT;
+                operand1 = ((ConstantToken)token).getValue() ? 1 : 0;
+                lastPosition = token.getPosition();
+            } else if (tokenType == Token.UNARY_OPERATOR) {
+                opcode = ((UnaryEvaluator)token).getOpcode();
+                operand1 = stack[--top];
+                lastPosition = token.getPosition() + token.getOffset();
+            } else if (tokenType == Token.BINARY_OPERATOR) {
+                opcode = ((BinaryEvaluator)token).getOpcode();
+                operand2 = stack[--top];
+                operand1 = stack[--top];
+                if ((opcode != CONDITIONAL) && (operand1 > operand2)) {
+                    final int swap = operand1;
+                    operand1 = operand2;
+                    operand2 = swap;
+                }
+                lastPosition = token.getPosition() + token.getOffset();
+            } else {
+                continue;
+            }
+            int slot = hash(opcode, operand1, operand2) & mask, instruction;
+            while (((instruction = instructionTable[slot]) != -1) &&
+                   ((opcodes[instruction] != opcode) || (operands1[instruction] != operand1) ||
+                    (operands2[instruction] != operand2))) {
+                slot = (slot + 1) & mask;
+            }
+            if (instruction == -1) {
+                opcodes[pc] = opcode;
+                operands1[pc] = operand1;
+                operands2[pc] = operand2;
+                instructionTable[slot] = instruction = pc++;
+            }
+            if ((tokenType == Token.UNARY_OPERATOR) || (tokenType == Token.BINARY_OPERATOR)) {
+                positions[numberOfColumns] = lastPosition;
+                columns[numberOfColumns++] = instruction;
+            }
+            stack[top++] = instruction;
+        }
+        numberOfInstructions = pc;
+        rootPosition = lastPosition;
+        if (numberOfColumns == 0) {
+            // A statement without connectives is displayed as a single column
+            // holding the value of its only proposition or constant.
+            positions[numberOfColumns] = lastPosition;
+            columns[numberOfColumns++] = pc - 1;
+        }
+        columnInstructions = new int[numberOfColumns];
+        columnPositions = new int[numberOfColumns];
+        System.arraycopy(columns, 0, columnInstructions, 0, numberOfColumns);
+        System.arraycopy(positions, 0, columnPositions, 0, numberOfColumns);
+        originalShifts = null;
+    }
+
+    /**
+     * Creates a statement from an already built program whose only column
+     * is its last instruction. Proposition shift i of this statement is
+     * shift originalShifts[i] of the statement it was derived from.
+     */
+    CompiledStatement(final int numberOfPropositions, final int[] opcodes,
+        final int[] operands1, final int[] operands2, final int[] originalShifts) {
+
+        this.numberOfPropositions = numberOfPropositions;
+        this.opcodes = opcodes;
+        this.operands1 = operands1;
+        this.operands2 = operands2;
+        this.originalShifts = originalShifts;
+        numberOfInstructions = opcodes.length;
+        rootPosition = 0;
+        columnInstructions = new int[] {numberOfInstructions - 1};
+        columnPositions = new int[] {0};
+    }
+
+    private static int hash(final int opcode, final int operand1, final int operand2) {
+        final int hash = (opcode * 0x9E3779B9) ^ (operand1 * 0x85EBCA6B) ^ (operand2 * 0xC2B2AE35);
+        return hash ^ (hash >>> 16);
+    }
+
+    public int getNumberOfInstructions() {
+        return numberOfInstructions;
+    }
+
+    public int getNumberOfPropositions() {
+        return numberOfPropositions;
+    }
+
+    public long getNumberOfRows() {
+        return 1L << numberOfPropositions;
+    }
+
+    public int getNumberOfWords() {
+        // Only meaningful for statements small enough to enumerate.
+        return (int)Math.max(1, getNumberOfRows() >> 6);
+    }
+
+    public long getWordMask() {
+        final long numberOfRows = getNumberOfRows();
+        if (numberOfRows >= 64) {
+            return -1L;
+        } else {
+            return (1L << numberOfRows) - 1;
+        }
+    }
+
+    /**
+     * Maps a row of this statement to a row of the statement it was derived
+     * from, with every proposition that was dropped set to false.
+     */
+    public long toOriginalRow(final long row) {
+        if (originalShifts == null) {
+            return row;
+        }
+        long originalRow = 0;
+        for (int i = 0; i < numberOfPropositions; i++) {
+            originalRow |= ((row >>> i) & 1L) << originalShifts[i];
+        }
+        return originalRow;
+    }
+
+    public int getNumberOfColumns() {
+        return columnInstructions.length;
+    }
+
+    public int getColumnPosition(final int column) {
+        return columnPositions[column];
+    }
+
+    int getColumnInstruction(final int column) {
+        return columnInstructions[column];
+    }
+
+    int getOpcode(final int instruction) {
+        return opcodes[instruction];
+    }
+
+    int getOperand1(final int instruction) {
+        return operands1[instruction];
+    }
+
+    int getOperand2(final int instruction) {
+        return operands2[instruction];
+    }
+
+    public int getRootPosition() {
+        return rootPosition;
+    }
+
+    public boolean[] createValueBuffer() {
+        return new boolean[numberOfInstructions];
+    }
+
+    public boolean evaluate(final long row, final boolean[] values) {
+        for (int i = 0; i < numberOfInstructions; i++) {
+            values[i] = evaluateInstruction(i, row, values);
+        }
+        return values[numberOfInstructions - 1];
+    }
+
+    boolean evaluateInstruction(final int i, final long row, final boolean[] values) {
+        switch (opcodes[i]) {
+            case LOAD:
+                return ((row >>> operands1[i]) & 1L) != 0;
+            case CONSTANT:
+                return operands1[i] != 0;
+            case NEGATION:
+                return !values[operands1[i]];
+            case CONJUNCTION:
+                return values[operands1[i]] & values[operands2[i]];
+            case INCLUSIVE_DISJUNCTION:
+                return values[operands1[i]] | values[operands2[i]];
+            case EXCLUSIVE_DISJUNCTION:
+                return values[operands1[i]] ^ values[operands2[i]];
+            case CONDITIONAL:
+                return !values[operands1[i]] | values[operands2[i]];
+            case BICONDITIONAL:
+                return values[operands1[i]] == values[operands2[i]];
+            default:
+                return false;
+        }
+    }
+
+    public long[] createWordBuffer() {
+        return new long[numberOfInstructions];
+    }
+
+    public long evaluateWord(final long word, final long[] values) {
+        for (int i = 0; i < numberOfInstructions; i++) {
+            switch (opcodes[i]) {
+                case LOAD:
+                    final int shift = operands1[i];
+                    if (shift < PROPOSITION_PATTERNS.length) {
+                        values[i] = PROPOSITION_PATTERNS[shift];
+                    } else {
+                        values[i] = -((word >>> (shift - PROPOSITION_PATTERNS.length)) & 1L);
+                    }
+                    break;
+                case CONSTANT:
+                    values[i] = -(long)operands1[i];
+                    break;
+                case NEGATION:
+                    values[i] = ~values[operands1[i]];
+                    break;
+                case CONJUNCTION:
+                    values[i] = values[operands1[i]] & values[operands2[i]];
+                    break;
+                case INCLUSIVE_DISJUNCTION:
+                    values[i] = values[operands1[i]] | values[operands2[i]];
+                    break;
+                case EXCLUSIVE_DISJUNCTION:
+                    values[i] = values[operands1[i]] ^ values[operands2[i]];
+                    break;
+                case CONDITIONAL:
+                    values[i] = ~values[operands1[i]] | values[operands2[i]];
+                    break;
+                case BICONDITIONAL:
+                    values[i] = ~(values[operands1[i]] ^ values[operands2[i]]);
+                    break;
+                default: break;
+            }
+        }
+        return values[numberOfInstructions - 1];
+    }
+
+    public int getNumberOfColumnWords() {
+        return (columnInstructions.length + 63) >>> 6;
+    }
+
+    public void packColumns(final boolean[] values, final long[] columnValues, final int offset) {
+        final int numberOfColumnWords = getNumberOfColumnWords();
+        for (int i = 0; i < numberOfColumnWords; i++) {
+            columnValues[offset + i] = 0;
+        }
+        for (int i = columnInstructions.length - 1; i >= 0; i--) {
+            if (values[columnInstructions[i]]) {
+                columnValues[offset + (i >>> 6)] |= 1L << i;
+            }
+        }
+    }
+}
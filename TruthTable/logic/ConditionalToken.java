@@ -36,6 +36,10 @@ public class ConditionalToken extends Token implements BinaryEvaluator {
         return 3;
     }
 
+    public int getOpcode() {
+        return CompiledStatement.CONDITIONAL;
+    }
+
     public ValueToken evaluate(final ValueToken token1, final ValueToken token2) {
         ValueToken returnToken = null;
         if ((token1.getValue() == true) && (token2.getValue() == false)) {
@@ -35,6 +35,10 @@ public class ConjunctionToken extends Token implements BinaryEvaluator {
         return 5;
     }
 
+    public int getOpcode() {
+        return CompiledStatement.CONJUNCTION;
+    }
+
     public ValueToken evaluate(final ValueToken token1, final ValueToken token2) {
         ValueToken returnToken = null;
         final boolean token1Value = token1.getValue();
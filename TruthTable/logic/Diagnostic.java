@@ -0,0 +1,77 @@
+/**
+ * Truth Table Constructor:
+ *     generates truth tables for statements in propositional logic
+ * Copyright (C) 2006, 2010, 2011  Brian S. Borowski
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * Email: brian_borowski AT yahoo DOT com
+ */
+package logic;
+
+/**
+ * A problem found in a statement, as reported by a scanner or parser run in
+ * error-collecting mode. The code is the message type of the corresponding
+ * ScannerException or ParserException, and the positions are the same
+ * one-based positions those exceptions carry: scanner positions refer to
+ * the statement as entered, parser positions to the reformatted statement.
+ */
+public class Diagnostic {
+    public static final int SCANNER = 0,
+                            PARSER  = 1;
+    private final int source, code, xValue, yValue;
+    private final boolean selectAll;
+
+    Diagnostic(final int source, final int code, final int xValue, final int yValue,
+        final boolean selectAll) {
+
+        this.source = source;
+        this.code = code;
+        this.xValue = xValue;
+        this.yValue = yValue;
+        this.selectAll = selectAll;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public int getXValue() {
+        return xValue;
+    }
+
+    public int getYValue() {
+        return yValue;
+    }
+
+    public boolean selectAll() {
+        return selectAll;
+    }
+
+    public String getMessage() {
+        final String message = (source == SCANNER) ?
+            ScannerException.messageTable[code] : ParserException.messageTable[code];
+        return message.replace("@X", String.valueOf(xValue)).replace("@Y", String.valueOf(yValue));
+    }
+
+    public String toString() {
+        return getMessage();
+    }
+}
@@ -35,6 +35,10 @@ public class ExclusiveDisjunctionToken extends Token implements BinaryEvaluator
         return 2;
     }
 
+    public int getOpcode() {
+        return CompiledStatement.EXCLUSIVE_DISJUNCTION;
+    }
+
     public ValueToken evaluate(final ValueToken token1, final ValueToken token2) {
         ValueToken returnToken = null;
         if (token1.getValue() == token2.getValue()) {
@@ -0,0 +1,91 @@
+/**
+ * Truth Table Constructor:
+ *     generates truth tables for statements in propositional logic
+ * Copyright (C) 2006, 2010, 2011  Brian S. Borowski
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * Email: brian_borowski AT yahoo DOT com
+ */
+package logic;
+
+/**
+ * An immutable node of the expression tree built by the parser. A node is a
+ * proposition or a constant with no operands, a negation with one operand,
+ * or a binary connective with two. Each node keeps the token it was built
+ * from and the position of that token in the statement as it was parsed.
+ */
+public final class Expression {
+    private final Token token;
+    private final Expression left, right;
+    private final int position;
+
+    public Expression(final Token token) {
+        this(token, null, null);
+    }
+
+    public Expression(final Token token, final Expression operand) {
+        this(token, operand, null);
+    }
+
+    public Expression(final Token token, final Expression left, final Expression right) {
+        this.token = token;
+        this.left = left;
+        this.right = right;
+        position = token.getPosition();
+    }
+
+    public Token getToken() {
+        return token;
+    }
+
+    public int getType() {
+        return token.getType();
+    }
+
+    public String getSymbol() {
+        return token.getSymbol();
+    }
+
+    public int getPrecedence() {
+        return token.getPrecedence();
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public boolean isLeaf() {
+        return left == null;
+    }
+
+    public boolean isUnary() {
+        return (left != null) && (right == null);
+    }
+
+    public boolean isBinary() {
+        return right != null;
+    }
+
+    /** Returns the operand of a negation or the left operand of a connective. */
+    public Expression getLeft() {
+        return left;
+    }
+
+    public Expression getRight() {
+        return right;
+    }
+}
@@ -0,0 +1,223 @@
+/**
+ * Truth Table Constructor:
+ *     generates truth tables for statements in propositional logic
+ * Copyright (C) 2006, 2010, 2011  Brian S. Borowski
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * Email: brian_borowski AT yahoo DOT com
+ */
+package logic;
+
+/**
+ * Walks the rows of a compiled statement incrementally. Moving from one
+ * row to another flips the propositions that differ and re-evaluates only
+ * the instructions that depend on them, stopping wherever a value does
+ * not change. Dirty instructions are processed in increasing order, which
+ * is a topological order of the program, so each is evaluated at most
+ * once per move. Walking the rows in Gray-code order flips exactly one
+ * proposition per step.
+ */
+public class GrayCodeEnumerator {
+    private final CompiledStatement compiledStatement;
+    private final int numberOfPropositions;
+    private final long numberOfRows;
+    private final boolean[] values, isQueued;
+    private final int[][] dependents, loads;
+    private final int[] heap;
+    private int heapSize;
+    private long step, row;
+
+    public GrayCodeEnumerator(final CompiledStatement compiledStatement) {
+        this.compiledStatement = compiledStatement;
+        numberOfPropositions = compiledStatement.getNumberOfPropositions();
+        numberOfRows = 1L << numberOfPropositions;
+        final int numberOfInstructions = compiledStatement.getNumberOfInstructions();
+        values = compiledStatement.createValueBuffer();
+        isQueued = new boolean[numberOfInstructions];
+        heap = new int[numberOfInstructions];
+
+        final int[] dependentCounts = new int[numberOfInstructions],
+                    loadCounts = new int[numberOfPropositions];
+        for (int i = 0; i < numberOfInstructions; i++) {
+            switch (compiledStatement.getOpcode(i)) {
+                case CompiledStatement.LOAD:
+                    loadCounts[compiledStatement.getOperand1(i)]++;
+                    break;
+                case CompiledStatement.CONSTANT:
+                    break;
+                case CompiledStatement.NEGATION:
+                    dependentCounts[compiledStatement.getOperand1(i)]++;
+                    break;
+                default:
+                    dependentCounts[compiledStatement.getOperand1(i)]++;
+                    if (compiledStatement.getOperand2(i) != compiledStatement.getOperand1(i)) {
+                        dependentCounts[compiledStatement.getOperand2(i)]++;
+                    }
+                    break;
+            }
+        }
+        dependents = new int[numberOfInstructions][];
+        for (int i = 0; i < numberOfInstructions; i++) {
+            dependents[i] = new int[dependentCounts[i]];
+            dependentCounts[i] = 0;
+        }
+        loads = new int[numberOfPropositions][];
+        for (int i = 0; i < numberOfPropositions; i++) {
+            loads[i] = new int[loadCounts[i]];
+            loadCounts[i] = 0;
+        }
+        for (int i = 0; i < numberOfInstructions; i++) {
+            final int operand1 = compiledStatement.getOperand1(i),
+                      operand2 = compiledStatement.getOperand2(i);
+            switch (compiledStatement.getOpcode(i)) {
+                case CompiledStatement.LOAD:
+                    loads[operand1][loadCounts[operand1]++] = i;
+                    break;
+                case CompiledStatement.CONSTANT:
+                    break;
+                case CompiledStatement.NEGATION:
+                    dependents[operand1][dependentCounts[operand1]++] = i;
+                    break;
+                default:
+                    dependents[operand1][dependentCounts[operand1]++] = i;
+                    if (operand2 != operand1) {
+                        dependents[operand2][dependentCounts[operand2]++] = i;
+                    }
+                    break;
+            }
+        }
+        compiledStatement.evaluate(0, values);
+    }
+
+    public boolean hasNext() {
+        return step != numberOfRows;
+    }
+
+    /**
+     * Advances to the next row in Gray-code order and returns its canonical
+     * row index, the one expected by computeRow.
+     */
+    public long next() {
+        if (step > 0) {
+            flip(Long.numberOfTrailingZeros(step));
+            propagate();
+        }
+        step++;
+        return row;
+    }
+
+    /**
+     * Moves to the given canonical row, re-evaluating only what the flipped
+     * propositions reach. Returns the value of the statement in that row.
+     */
+    public boolean seek(final long index) {
+        long difference = row ^ index;
+        if (Long.bitCount(difference) > (numberOfPropositions >> 1) + 1) {
+            row = index;
+            return compiledStatement.evaluate(index, values);
+        }
+        while (difference != 0) {
+            flip(Long.numberOfTrailingZeros(difference));
+            difference &= difference - 1;
+        }
+        propagate();
+        return getValue();
+    }
+
+    public long getRow() {
+        return row;
+    }
+
+    public boolean getValue() {
+        return values[values.length - 1];
+    }
+
+    public boolean[] getValues() {
+        return values;
+    }
+
+    public static long toRow(final long step) {
+        return step ^ (step >>> 1);
+    }
+
+    private void flip(final int shift) {
+        row ^= 1L << shift;
+        final int[] instructions = loads[shift];
+        for (int i = instructions.length - 1; i >= 0; i--) {
+            final int instruction = instructions[i];
+            values[instruction] = !values[instruction];
+            enqueueDependents(instruction);
+        }
+    }
+
+    private void propagate() {
+        while (heapSize > 0) {
+            final int instruction = removeFirst();
+            isQueued[instruction] = false;
+            final boolean value = compiledStatement.evaluateInstruction(instruction, row, values);
+            if (value != values[instruction]) {
+                values[instruction] = value;
+                enqueueDependents(instruction);
+            }
+        }
+    }
+
+    private void enqueueDependents(final int instruction) {
+        final int[] instructions = dependents[instruction];
+        for (int i = instructions.length - 1; i >= 0; i--) {
+            final int dependent = instructions[i];
+            if (!isQueued[dependent]) {
+                isQueued[dependent] = true;
+                add(dependent);
+            }
+        }
+    }
+
+    private void add(final int instruction) {
+        int i = heapSize++;
+        while (i > 0) {
+            final int parent = (i - 1) >> 1;
+            if (heap[parent] <= instruction) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = instruction;
+    }
+
+    private int removeFirst() {
+        final int first = heap[0], last = heap[--heapSize];
+        int i = 0;
+        while (true) {
+            int child = (i << 1) + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if ((child + 1 < heapSize) && (heap[child + 1] < heap[child])) {
+                child++;
+            }
+            if (heap[child] >= last) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return first;
+    }
+}
@@ -35,6 +35,10 @@ public class InclusiveDisjunctionToken extends Token implements BinaryEvaluator
         return 4;
     }
 
+    public int getOpcode() {
+        return CompiledStatement.INCLUSIVE_DISJUNCTION;
+    }
+
     public ValueToken evaluate(final ValueToken token1, final ValueToken token2) {
         ValueToken returnToken = null;
         if ((token1.getValue() == false) && (token2.getValue() == false)) {
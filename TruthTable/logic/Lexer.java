@@ -0,0 +1,540 @@
+/**
+ * Truth Table Constructor:
+ *     generates truth tables for statements in propositional logic
+ * Copyright (C) 2006, 2010, 2011  Brian S. Borowski
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * Email: brian_borowski AT yahoo DOT com
+ */
+package logic;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+/**
+ * A table-driven lexer for statements. Every ASCII character is mapped by a
+ * 128-entry table to the action that scans it, and the multiple-character
+ * connectives =>, ->, <=> and <-> are recognized by a small DFA, so each
+ * character is examined once. Tokens are written to parallel arrays of
+ * kind, start offset, length and symbol id instead of being allocated as
+ * objects. The kinds are the Token types; the symbol id of a connective
+ * is its CompiledStatement opcode, of a constant its value, and of a
+ * proposition the index of its name in the lexer's symbol table. Aliases
+ * from the OperatorRegistry are looked up only for non-ASCII characters,
+ * backslashes and identifiers, which never reach the ASCII dispatch.
+ */
+public class Lexer {
+    private static final byte OTHER                 = 0,
+                              SPACE                 = 1,
+                              LETTER                = 2,
+                              NEGATION              = 3,
+                              CONJUNCTION           = 4,
+                              EXCLUSIVE_DISJUNCTION = 5,
+                              OPEN_PARENTHESIS      = 6,
+                              CLOSE_PARENTHESIS     = 7,
+                              CONSTANT_FALSE        = 8,
+                              CONSTANT_TRUE         = 9,
+                              DIGIT                 = 10,
+                              UNDERSCORE            = 11,
+                              EQUALS                = 12,
+                              HYPHEN                = 13,
+                              LESS_THAN             = 14,
+                              GREATER_THAN          = 15,
+                              BACKSLASH             = 16,
+                              ALIAS                 = 17;
+    private static final byte[] CHARACTER_CLASSES = new byte[128];
+
+    // States of the DFA for multiple-character connectives. A state is
+    // accepting when its transition on '>' completes a connective.
+    private static final int DFA_START = 0, DFA_EQUALS = 1, DFA_HYPHEN = 2,
+                             DFA_LESS_THAN = 3, DFA_LESS_THAN_EQUALS = 4,
+                             DFA_LESS_THAN_HYPHEN = 5, DFA_ERROR = -1;
+    private static final int[][] DFA_TRANSITIONS = new int[6][17];
+    private static final int[] DFA_ACCEPTED = {
+        -1, CompiledStatement.CONDITIONAL, CompiledStatement.CONDITIONAL,
+        -1, CompiledStatement.BICONDITIONAL, CompiledStatement.BICONDITIONAL
+    };
+    private static final String[] CONNECTIVE_SPELLINGS = {
+        null, "=>", "->", null, "<=>", "<->"
+    };
+    private static final String[] SINGLE_CHARACTER_SPELLINGS = new String[128];
+
+    static {
+        // Line breaks and tabs separate symbols like spaces, so that
+        // statements read from files may span several lines.
+        CHARACTER_CLASSES[' '] = SPACE;
+        CHARACTER_CLASSES['\t'] = SPACE;
+        CHARACTER_CLASSES['\n'] = SPACE;
+        CHARACTER_CLASSES['\r'] = SPACE;
+        CHARACTER_CLASSES['\f'] = SPACE;
+        for (char c = 'A'; c <= 'Z'; c++) {
+            CHARACTER_CLASSES[c] = LETTER;
+            CHARACTER_CLASSES[Character.toLowerCase(c)] = LETTER;
+        }
+        for (char c = '2'; c <= '9'; c++) {
+            CHARACTER_CLASSES[c] = DIGIT;
+        }
+        CHARACTER_CLASSES['~'] = NEGATION;
+        CHARACTER_CLASSES['!'] = NEGATION;
+        CHARACTER_CLASSES['&'] = CONJUNCTION;
+        CHARACTER_CLASSES['^'] = CONJUNCTION;
+        CHARACTER_CLASSES['+'] = EXCLUSIVE_DISJUNCTION;
+        CHARACTER_CLASSES['('] = OPEN_PARENTHESIS;
+        CHARACTER_CLASSES[')'] = CLOSE_PARENTHESIS;
+        CHARACTER_CLASSES['0'] = CONSTANT_FALSE;
+        CHARACTER_CLASSES['1'] = CONSTANT_TRUE;
+        CHARACTER_CLASSES['_'] = UNDERSCORE;
+        CHARACTER_CLASSES['='] = EQUALS;
+        CHARACTER_CLASSES['-'] = HYPHEN;
+        CHARACTER_CLASSES['<'] = LESS_THAN;
+        CHARACTER_CLASSES['>'] = GREATER_THAN;
+        CHARACTER_CLASSES['\\'] = BACKSLASH;
+        for (char c = 0; c < SINGLE_CHARACTER_SPELLINGS.length; c++) {
+            SINGLE_CHARACTER_SPELLINGS[c] = String.valueOf(c).intern();
+        }
+
+        for (int i = 0; i < DFA_TRANSITIONS.length; i++) {
+            for (int j = 0; j < DFA_TRANSITIONS[i].length; j++) {
+                DFA_TRANSITIONS[i][j] = DFA_ERROR;
+            }
+        }
+        DFA_TRANSITIONS[DFA_START][EQUALS] = DFA_EQUALS;
+        DFA_TRANSITIONS[DFA_START][HYPHEN] = DFA_HYPHEN;
+        DFA_TRANSITIONS[DFA_START][LESS_THAN] = DFA_LESS_THAN;
+        DFA_TRANSITIONS[DFA_LESS_THAN][EQUALS] = DFA_LESS_THAN_EQUALS;
+        DFA_TRANSITIONS[DFA_LESS_THAN][HYPHEN] = DFA_LESS_THAN_HYPHEN;
+    }
+
+    private static final int READ_SIZE = 8192;
+
+    private final Reader reader;
+    private char[] buffer;
+    private int bufferOffset, bufferLength, mark;
+    private boolean isEndOfInput;
+    private int numberOfTokens;
+    private int[] kinds, starts, lengths, symbols;
+    private String[] texts;
+    private final SymbolTable symbolTable;
+    private final OperatorRegistry operators;
+    private List<Diagnostic> diagnostics;
+
+    public Lexer(final String statement) {
+        this(null, statement.toCharArray(), Math.max(16, statement.length() / 2));
+    }
+
+    /**
+     * Creates a lexer that reads the statement from the given reader as it
+     * tokenizes. Only the characters of the token being scanned are kept,
+     * so the statement itself is never held in memory in full.
+     */
+    public Lexer(final Reader reader) {
+        this(reader, new char[READ_SIZE], 1024);
+    }
+
+    private Lexer(final Reader reader, final char[] buffer, final int capacity) {
+        this.reader = reader;
+        this.buffer = buffer;
+        bufferLength = (reader == null) ? buffer.length : 0;
+        isEndOfInput = reader == null;
+        kinds = new int[capacity];
+        starts = new int[capacity];
+        lengths = new int[capacity];
+        symbols = new int[capacity];
+        texts = new String[capacity];
+        symbolTable = new SymbolTable();
+        operators = OperatorRegistry.getDefault();
+    }
+
+    public void tokenize() throws ScannerException {
+        tokenize(null);
+    }
+
+    /**
+     * Tokenizes the statement. When a list is given, illegal symbols are
+     * added to it as diagnostics and skipped instead of being thrown.
+     */
+    public void tokenize(final List<Diagnostic> diagnostics) throws ScannerException {
+        this.diagnostics = diagnostics;
+        int i = 0, positionOfFirstBadChar = -1;
+        while (hasCharAt(i)) {
+            final char c = charAt(i);
+            final int characterClass = (c < 128) ? CHARACTER_CLASSES[c] :
+                (operators.findCharacter(c) != -1) ? ALIAS : OTHER;
+            if ((characterClass == OTHER) || (characterClass == DIGIT) ||
+                (characterClass == UNDERSCORE) || (characterClass == GREATER_THAN) ||
+                ((characterClass == BACKSLASH) && (!isLetterAt(i + 1)))) {
+                // Characters that cannot start a symbol form a run that is
+                // reported as one illegal symbol.
+                if (positionOfFirstBadChar == -1) {
+                    positionOfFirstBadChar = i;
+                }
+                mark = ++i;
+                continue;
+            }
+            if (positionOfFirstBadChar != -1) {
+                reportError(positionOfFirstBadChar, i - 1);
+                positionOfFirstBadChar = -1;
+            }
+            mark = i;
+            switch (characterClass) {
+                case SPACE:
+                    i++;
+                    break;
+                case LETTER:
+                    i = scanIdentifier(i);
+                    break;
+                case NEGATION:
+                    add(Token.UNARY_OPERATOR, i++, 1, CompiledStatement.NEGATION);
+                    break;
+                case CONJUNCTION:
+                    add(Token.BINARY_OPERATOR, i++, 1, CompiledStatement.CONJUNCTION);
+                    break;
+                case EXCLUSIVE_DISJUNCTION:
+                    add(Token.BINARY_OPERATOR, i++, 1, CompiledStatement.EXCLUSIVE_DISJUNCTION);
+                    break;
+                case OPEN_PARENTHESIS:
+                    add(Token.OPEN_PARENTHESIS, i++, 1, 0);
+                    break;
+                case CLOSE_PARENTHESIS:
+                    add(Token.CLOSE_PARENTHESIS, i++, 1, 0);
+                    break;
+                case CONSTANT_FALSE:
+                    add(Token.CONSTANT, i++, 1, 0);
+                    break;
+                case CONSTANT_TRUE:
+                    add(Token.CONSTANT, i++, 1, 1);
+                    break;
+                case EQUALS:
+                case HYPHEN:
+                case LESS_THAN:
+                    i = scanConnective(i);
+                    break;
+                case BACKSLASH:
+                    i = scanCommand(i);
+                    break;
+                case ALIAS:
+                    final int alias = operators.findCharacter(c);
+                    add(operators.getCharacterKind(alias), i++, 1,
+                        operators.getCharacterSymbol(alias));
+                    break;
+                default: break;
+            }
+        }
+        if (positionOfFirstBadChar != -1) {
+            reportError(positionOfFirstBadChar, i - 1);
+        }
+    }
+
+    public int getNumberOfTokens() {
+        return numberOfTokens;
+    }
+
+    public int getKind(final int token) {
+        return kinds[token];
+    }
+
+    public int getStart(final int token) {
+        return starts[token];
+    }
+
+    public int getLength(final int token) {
+        return lengths[token];
+    }
+
+    public int getSymbol(final int token) {
+        return symbols[token];
+    }
+
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    /**
+     * Returns the spelling of a connective, the name of a proposition, or
+     * the symbol of a constant or parenthesis.
+     */
+    public String getText(final int token) {
+        switch (kinds[token]) {
+            case Token.PROPOSITION:
+                return symbolTable.getName(symbols[token]);
+            case Token.CONSTANT:
+                return (symbols[token] != 0) ? "1" : "0";
+            case Token.OPEN_PARENTHESIS:
+                return "(";
+            case Token.CLOSE_PARENTHESIS:
+                return ")";
+            default:
+                return texts[token];
+        }
+    }
+
+    private boolean hasCharAt(final int i) throws ScannerException {
+        return (i - bufferOffset < bufferLength) || (fill(i));
+    }
+
+    private char charAt(final int i) {
+        return buffer[i - bufferOffset];
+    }
+
+    /**
+     * Reads from the reader until the character at the given position is
+     * buffered, discarding everything before the start of the current
+     * token. Returns false at the end of the input.
+     */
+    private boolean fill(final int i) throws ScannerException {
+        while ((!isEndOfInput) && (i - bufferOffset >= bufferLength)) {
+            final int discarded = mark - bufferOffset;
+            if (discarded > 0) {
+                System.arraycopy(buffer, discarded, buffer, 0, bufferLength - discarded);
+                bufferOffset = mark;
+                bufferLength -= discarded;
+            }
+            if (bufferLength == buffer.length) {
+                final char[] newBuffer = new char[buffer.length << 1];
+                System.arraycopy(buffer, 0, newBuffer, 0, bufferLength);
+                buffer = newBuffer;
+            }
+            final int count;
+            try {
+                count = reader.read(buffer, bufferLength, buffer.length - bufferLength);
+            } catch (final IOException ioe) {
+                if (diagnostics == null) {
+                    throw new ScannerException(ScannerException.READ_ERROR);
+                }
+                diagnostics.add(new Diagnostic(Diagnostic.SCANNER,
+                    ScannerException.READ_ERROR, -1, -1, true));
+                isEndOfInput = true;
+                break;
+            }
+            if (count < 0) {
+                isEndOfInput = true;
+            } else {
+                bufferLength += count;
+            }
+        }
+        return i - bufferOffset < bufferLength;
+    }
+
+    private int scanIdentifier(final int start) throws ScannerException {
+        int i = start + 1;
+        while (hasCharAt(i)) {
+            final char c = charAt(i);
+            final int characterClass = (c < 128) ? CHARACTER_CLASSES[c] : OTHER;
+            if ((characterClass != LETTER) && (characterClass != DIGIT) &&
+                (characterClass != UNDERSCORE) && (characterClass != CONSTANT_FALSE) &&
+                (characterClass != CONSTANT_TRUE)) {
+                break;
+            }
+            i++;
+        }
+        final int disjunctions = countDisjunctions(buffer, start - bufferOffset, i - start);
+        if (disjunctions == -1) {
+            reportError(ScannerException.AMBIGUOUS_DISJUNCTION, start, i - 1);
+            return i;
+        }
+        if (disjunctions > 0) {
+            for (int j = start; j < i; j++) {
+                if (charAt(j) == 'v') {
+                    add(Token.BINARY_OPERATOR, j, 1, CompiledStatement.INCLUSIVE_DISJUNCTION);
+                } else {
+                    add(Token.PROPOSITION, j, 1, symbolTable.intern(buffer, j - bufferOffset, 1));
+                }
+            }
+            return i;
+        }
+        final int word = operators.findWord(buffer, start - bufferOffset, i - start);
+        if (word != -1) {
+            addAlias(operators.getWordKind(word), start, i - start, operators.getWordSymbol(word));
+            return i;
+        }
+        add(Token.PROPOSITION, start, i - start, symbolTable.intern(buffer, start - bufferOffset, i - start));
+        return i;
+    }
+
+    /**
+     * Counts the v's in an identifier that stand for the inclusive
+     * disjunction. A v is the connective, as in AvB, only when the parts of
+     * the identifier on both sides of it are at most a single letter;
+     * otherwise it is a letter of a name such as level or v1. Returns -1
+     * when the identifier mixes both, as in AvBvCD.
+     */
+    static int countDisjunctions(final char[] characters, final int start, final int length) {
+        final int end = start + length;
+        int disjunctions = 0, letters = 0, segmentStart = start;
+        boolean isPreviousSegmentShort = false;
+        for (int i = start; i <= end; i++) {
+            if ((i < end) && (characters[i] != 'v')) {
+                continue;
+            }
+            final int segmentLength = i - segmentStart;
+            final boolean isSegmentShort = (segmentLength == 0) ||
+                ((segmentLength == 1) && (CHARACTER_CLASSES[characters[segmentStart]] == LETTER));
+            if (segmentStart > start) {
+                if ((isPreviousSegmentShort) && (isSegmentShort)) {
+                    disjunctions++;
+                } else {
+                    letters++;
+                }
+            }
+            isPreviousSegmentShort = isSegmentShort;
+            segmentStart = i + 1;
+        }
+        return ((disjunctions > 0) && (letters > 0)) ? -1 : disjunctions;
+    }
+
+    /**
+     * Scans a LaTeX command, a backslash followed by letters, reporting it
+     * as an illegal symbol if no alias is registered under its name.
+     */
+    private int scanCommand(final int start) throws ScannerException {
+        int i = start + 1;
+        while (isLetterAt(i)) {
+            i++;
+        }
+        final int command = operators.findCommand(buffer, start + 1 - bufferOffset, i - start - 1);
+        if (command == -1) {
+            reportError(start, i - 1);
+        } else {
+            addAlias(operators.getCommandKind(command), start, i - start,
+                operators.getCommandSymbol(command));
+        }
+        return i;
+    }
+
+    /**
+     * Runs the DFA for a connective starting at the given position. On a
+     * mismatch the illegal symbol extends up to the next character that can
+     * start a statement, matching the ranges the scanner has always reported.
+     */
+    private int scanConnective(final int start) throws ScannerException {
+        int state = DFA_START, i = start;
+        while (hasCharAt(i)) {
+            final char c = charAt(i);
+            final int characterClass = (c < 128) ? CHARACTER_CLASSES[c] : OTHER;
+            if ((characterClass == GREATER_THAN) && (DFA_ACCEPTED[state] != -1)) {
+                add(Token.BINARY_OPERATOR, start, i - start + 1, DFA_ACCEPTED[state]);
+                texts[numberOfTokens - 1] = CONNECTIVE_SPELLINGS[state];
+                return i + 1;
+            }
+            final int next = DFA_TRANSITIONS[state][characterClass];
+            if (next == DFA_ERROR) {
+                break;
+            }
+            state = next;
+            i++;
+        }
+        if ((state == DFA_LESS_THAN) && (hasCharAt(i + 1)) &&
+            (!canStartStatement(charAt(i))) && (charAt(i + 1) == '>')) {
+            // A stray character in place of the middle of <=> or <->.
+            reportError(start, i + 1);
+            return i + 2;
+        }
+        while ((hasCharAt(i)) && (!canStartStatement(charAt(i)))) {
+            i++;
+        }
+        reportError(start, i - 1);
+        return i;
+    }
+
+    private boolean isLetterAt(final int i) throws ScannerException {
+        if (!hasCharAt(i)) {
+            return false;
+        }
+        final char c = charAt(i);
+        return ((c >= 'a') && (c <= 'z')) || ((c >= 'A') && (c <= 'Z'));
+    }
+
+    private boolean canStartStatement(final char c) {
+        if (c >= 128) {
+            return operators.findCharacter(c) != -1;
+        }
+        final int characterClass = CHARACTER_CLASSES[c];
+        return (characterClass == SPACE) || (characterClass == BACKSLASH) || (characterClass == LETTER) ||
+               (characterClass == NEGATION) ||
+               (characterClass == OPEN_PARENTHESIS) || (characterClass == CONSTANT_FALSE) ||
+               (characterClass == CONSTANT_TRUE);
+    }
+
+    private void add(final int kind, final int start, final int tokenLength, final int symbol) {
+        if (numberOfTokens == kinds.length) {
+            final int capacity = kinds.length << 1;
+            kinds = copyOf(kinds, capacity);
+            starts = copyOf(starts, capacity);
+            lengths = copyOf(lengths, capacity);
+            symbols = copyOf(symbols, capacity);
+            texts = copyOf(texts, capacity);
+        }
+        kinds[numberOfTokens] = kind;
+        starts[numberOfTokens] = start;
+        lengths[numberOfTokens] = tokenLength;
+        symbols[numberOfTokens] = symbol;
+        if (tokenLength == 1) {
+            final char c = charAt(start);
+            texts[numberOfTokens] = (c < 128) ? SINGLE_CHARACTER_SPELLINGS[c] : String.valueOf(c);
+        }
+        numberOfTokens++;
+    }
+
+    private void addAlias(final int kind, final int start, final int tokenLength, final int symbol) {
+        add(kind, start, tokenLength, symbol);
+        texts[numberOfTokens - 1] = OperatorRegistry.getStandardSpelling(kind, symbol);
+    }
+
+    private int[] copyOf(final int[] array, final int capacity) {
+        final int[] copy = new int[capacity];
+        System.arraycopy(array, 0, copy, 0, numberOfTokens);
+        return copy;
+    }
+
+    private String[] copyOf(final String[] array, final int capacity) {
+        final String[] copy = new String[capacity];
+        System.arraycopy(array, 0, copy, 0, numberOfTokens);
+        return copy;
+    }
+
+    /**
+     * Reports an ambiguous v, pointing at the identifier it appears in.
+     */
+    private void reportError(final int messageType, final int positionOfFirstChar,
+        final int positionOfLastChar) throws ScannerException {
+        if (diagnostics != null) {
+            diagnostics.add(new Diagnostic(Diagnostic.SCANNER, messageType,
+                positionOfFirstChar + 1, positionOfLastChar + 1, false));
+        } else {
+            throw new ScannerException(messageType, positionOfFirstChar + 1,
+                positionOfLastChar + 1);
+        }
+    }
+
+    private void reportError(final int positionOfFirstBadChar,
+        final int positionOfCurrentChar) throws ScannerException {
+        final boolean isSingleSymbol = positionOfCurrentChar - positionOfFirstBadChar < 1;
+        if (diagnostics != null) {
+            diagnostics.add(new Diagnostic(Diagnostic.SCANNER,
+                isSingleSymbol ? ScannerException.ILLEGAL_SYMBOL : ScannerException.ILLEGAL_SYMBOLS,
+                positionOfFirstBadChar + 1,
+                isSingleSymbol ? positionOfFirstBadChar + 1 : positionOfCurrentChar + 1, false));
+        } else if (isSingleSymbol) {
+            throw new ScannerException(ScannerException.ILLEGAL_SYMBOL,
+                positionOfFirstBadChar + 1);
+        } else {
+            throw new ScannerException(ScannerException.ILLEGAL_SYMBOLS,
+                positionOfFirstBadChar + 1, positionOfCurrentChar + 1);
+        }
+    }
+}
@@ -35,6 +35,10 @@ public class NegationToken extends Token implements UnaryEvaluator {
         return 6;
     }
 
+    public int getOpcode() {
+        return CompiledStatement.NEGATION;
+    }
+
     public ValueToken evaluate(final ValueToken token) {
         ValueToken returnToken = null;
         if (token.getValue() == false) {
@@ -0,0 +1,313 @@
+/**
+ * Truth Table Constructor:
+ *     generates truth tables for statements in propositional logic
+ * Copyright (C) 2006, 2010, 2011  Brian S. Borowski
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * Email: brian_borowski AT yahoo DOT com
+ */
+package logic;
+
+/**
+ * Alternative spellings of the connectives and constants, for statements
+ * exported from other tools. Three forms of alias are accepted: a single
+ * non-ASCII character such as U+2227, a LaTeX command such as \land, and a
+ * word such as and. The lexer only consults the registry for characters
+ * its ASCII table does not already handle, namely non-ASCII characters,
+ * backslashes and identifiers of a registered word's length, so statements
+ * written with the standard symbols are tokenized exactly as fast as
+ * before.
+ *
+ * Commands are case-sensitive, as in LaTeX, and words are not, so that a
+ * word can no longer be used as the name of a proposition. Commands and
+ * words are read back with the standard spelling of their connective;
+ * characters keep their own. A registry is read by every lexer created
+ * after it is installed with setDefault and must not be changed after.
+ */
+public class OperatorRegistry {
+    private static final String[] STANDARD_SPELLINGS = {
+        null, null, "~", "&", "v", "+", "=>", "<=>"
+    };
+
+    private static volatile OperatorRegistry defaultRegistry = createStandardRegistry();
+
+    private char[] characters;
+    private int[] characterKinds, characterSymbols;
+    private int numberOfCharacters;
+    private String[] commands, words;
+    private int[] commandKinds, commandSymbols, wordKinds, wordSymbols;
+    private int numberOfCommands, numberOfWords, minWordLength, maxWordLength;
+
+    public OperatorRegistry() {
+        characters = new char[8];
+        characterKinds = new int[8];
+        characterSymbols = new int[8];
+        commands = new String[8];
+        commandKinds = new int[8];
+        commandSymbols = new int[8];
+        words = new String[8];
+        wordKinds = new int[8];
+        wordSymbols = new int[8];
+        minWordLength = Integer.MAX_VALUE;
+    }
+
+    public static OperatorRegistry getDefault() {
+        return defaultRegistry;
+    }
+
+    public static void setDefault(final OperatorRegistry registry) {
+        defaultRegistry = registry;
+    }
+
+    /**
+     * Returns a registry holding the usual Unicode characters, LaTeX
+     * commands and words for each connective and constant.
+     */
+    public static OperatorRegistry createStandardRegistry() {
+        final OperatorRegistry registry = new OperatorRegistry();
+        registry.addConnective("\u00AC", CompiledStatement.NEGATION);
+        registry.addConnective("\\neg", CompiledStatement.NEGATION);
+        registry.addConnective("\\lnot", CompiledStatement.NEGATION);
+        registry.addConnective("not", CompiledStatement.NEGATION);
+        registry.addConnective("\u2227", CompiledStatement.CONJUNCTION);
+        registry.addConnective("\\land", CompiledStatement.CONJUNCTION);
+        registry.addConnective("\\wedge", CompiledStatement.CONJUNCTION);
+        registry.addConnective("and", CompiledStatement.CONJUNCTION);
+        registry.addConnective("\u2228", CompiledStatement.INCLUSIVE_DISJUNCTION);
+        registry.addConnective("\\lor", CompiledStatement.INCLUSIVE_DISJUNCTION);
+        registry.addConnective("\\vee", CompiledStatement.INCLUSIVE_DISJUNCTION);
+        registry.addConnective("or", CompiledStatement.INCLUSIVE_DISJUNCTION);
+        registry.addConnective("\u2295", CompiledStatement.EXCLUSIVE_DISJUNCTION);
+        registry.addConnective("\u22BB", CompiledStatement.EXCLUSIVE_DISJUNCTION);
+        registry.addConnective("\\oplus", CompiledStatement.EXCLUSIVE_DISJUNCTION);
+        registry.addConnective("\\veebar", CompiledStatement.EXCLUSIVE_DISJUNCTION);
+        registry.addConnective("xor", CompiledStatement.EXCLUSIVE_DISJUNCTION);
+        registry.addConnective("\u2192", CompiledStatement.CONDITIONAL);
+        registry.addConnective("\u21D2", CompiledStatement.CONDITIONAL);
+        registry.addConnective("\u2283", CompiledStatement.CONDITIONAL);
+        registry.addConnective("\\to", CompiledStatement.CONDITIONAL);
+        registry.addConnective("\\rightarrow", CompiledStatement.CONDITIONAL);
+        registry.addConnective("\\Rightarrow", CompiledStatement.CONDITIONAL);
+        registry.addConnective("\\implies", CompiledStatement.CONDITIONAL);
+        registry.addConnective("\\supset", CompiledStatement.CONDITIONAL);
+        registry.addConnective("implies", CompiledStatement.CONDITIONAL);
+        registry.addConnective("\u2194", CompiledStatement.BICONDITIONAL);
+        registry.addConnective("\u21D4", CompiledStatement.BICONDITIONAL);
+        registry.addConnective("\u2261", CompiledStatement.BICONDITIONAL);
+        registry.addConnective("\\leftrightarrow", CompiledStatement.BICONDITIONAL);
+        registry.addConnective("\\Leftrightarrow", CompiledStatement.BICONDITIONAL);
+        registry.addConnective("\\iff", CompiledStatement.BICONDITIONAL);
+        registry.addConnective("\\equiv", CompiledStatement.BICONDITIONAL);
+        registry.addConnective("iff", CompiledStatement.BICONDITIONAL);
+        registry.addConstant("\u22A4", true);
+        registry.addConstant("\\top", true);
+        registry.addConstant("\u22A5", false);
+        registry.addConstant("\\bot", false);
+        return registry;
+    }
+
+    /**
+     * Registers an alias for the connective with the given CompiledStatement
+     * opcode, from NEGATION to BICONDITIONAL.
+     */
+    public void addConnective(final String spelling, final int opcode) {
+        if ((opcode < CompiledStatement.NEGATION) || (opcode > CompiledStatement.BICONDITIONAL)) {
+            throw new IllegalArgumentException("Not a connective: " + opcode);
+        }
+        add(spelling, (opcode == CompiledStatement.NEGATION) ?
+            Token.UNARY_OPERATOR : Token.BINARY_OPERATOR, opcode);
+    }
+
+    public void addConstant(final String spelling, final boolean value) {
+        add(spelling, Token.CONSTANT, value ? 1 : 0);
+    }
+
+    private void add(final String spelling, final int kind, final int symbol) {
+        final int length = spelling.length();
+        if ((length == 1) && (spelling.charAt(0) >= 128)) {
+            if (numberOfCharacters == characters.length) {
+                characters = copyOf(characters, numberOfCharacters << 1);
+                characterKinds = copyOf(characterKinds, numberOfCharacters << 1);
+                characterSymbols = copyOf(characterSymbols, numberOfCharacters << 1);
+            }
+            // Kept sorted for binary search.
+            final char c = spelling.charAt(0);
+            int i = numberOfCharacters;
+            while ((i > 0) && (characters[i - 1] > c)) {
+                characters[i] = characters[i - 1];
+                characterKinds[i] = characterKinds[i - 1];
+                characterSymbols[i] = characterSymbols[i - 1];
+                i--;
+            }
+            characters[i] = c;
+            characterKinds[i] = kind;
+            characterSymbols[i] = symbol;
+            numberOfCharacters++;
+        } else if ((length > 1) && (spelling.charAt(0) == '\\') && (isLetters(spelling, 1))) {
+            if (numberOfCommands == commands.length) {
+                commands = copyOf(commands, numberOfCommands << 1);
+                commandKinds = copyOf(commandKinds, numberOfCommands << 1);
+                commandSymbols = copyOf(commandSymbols, numberOfCommands << 1);
+            }
+            commands[numberOfCommands] = spelling.substring(1);
+            commandKinds[numberOfCommands] = kind;
+            commandSymbols[numberOfCommands] = symbol;
+            numberOfCommands++;
+        } else if ((length > 1) && (isLetters(spelling, 0)) &&
+                   (Lexer.countDisjunctions(spelling.replace('V', 'v').toCharArray(), 0, length) == 0)) {
+            // A word whose v would be scanned as a disjunction could never be
+            // scanned as one identifier.
+            if (numberOfWords == words.length) {
+                words = copyOf(words, numberOfWords << 1);
+                wordKinds = copyOf(wordKinds, numberOfWords << 1);
+                wordSymbols = copyOf(wordSymbols, numberOfWords << 1);
+            }
+            words[numberOfWords] = spelling;
+            wordKinds[numberOfWords] = kind;
+            wordSymbols[numberOfWords] = symbol;
+            numberOfWords++;
+            minWordLength = Math.min(minWordLength, length);
+            maxWordLength = Math.max(maxWordLength, length);
+        } else {
+            throw new IllegalArgumentException("Cannot use '" + spelling + "' as an alias.");
+        }
+    }
+
+    /**
+     * Returns the index of the alias for the given non-ASCII character, or
+     * -1 if there is none.
+     */
+    int findCharacter(final char c) {
+        int low = 0, high = numberOfCharacters - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            if (characters[middle] < c) {
+                low = middle + 1;
+            } else if (characters[middle] > c) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    int getCharacterKind(final int index) {
+        return characterKinds[index];
+    }
+
+    int getCharacterSymbol(final int index) {
+        return characterSymbols[index];
+    }
+
+    /**
+     * Returns the index of the command whose name, without the backslash,
+     * is held in the given range of characters, or -1 if there is none.
+     */
+    int findCommand(final char[] buffer, final int start, final int length) {
+        for (int i = 0; i < numberOfCommands; i++) {
+            if ((commands[i].length() == length) &&
+                (regionMatches(buffer, start, commands[i], false))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    int getCommandKind(final int index) {
+        return commandKinds[index];
+    }
+
+    int getCommandSymbol(final int index) {
+        return commandSymbols[index];
+    }
+
+    /**
+     * Returns the index of the word held in the given range of characters,
+     * or -1 if there is none. Identifiers too short or too long to be a
+     * word are rejected without being compared.
+     */
+    int findWord(final char[] buffer, final int start, final int length) {
+        if ((length < minWordLength) || (length > maxWordLength)) {
+            return -1;
+        }
+        for (int i = 0; i < numberOfWords; i++) {
+            if ((words[i].length() == length) &&
+                (regionMatches(buffer, start, words[i], true))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    int getWordKind(final int index) {
+        return wordKinds[index];
+    }
+
+    int getWordSymbol(final int index) {
+        return wordSymbols[index];
+    }
+
+    /** Returns the spelling commands and words are read back with. */
+    static String getStandardSpelling(final int kind, final int symbol) {
+        if (kind == Token.CONSTANT) {
+            return (symbol != 0) ? "1" : "0";
+        }
+        return STANDARD_SPELLINGS[symbol];
+    }
+
+    private static boolean isLetters(final String spelling, final int start) {
+        for (int i = start; i < spelling.length(); i++) {
+            final char c = spelling.charAt(i);
+            if (((c < 'a') || (c > 'z')) && ((c < 'A') || (c > 'Z'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean regionMatches(final char[] buffer, final int start,
+        final String name, final boolean ignoreCase) {
+
+        for (int i = name.length() - 1; i >= 0; i--) {
+            final char c = buffer[start + i], d = name.charAt(i);
+            if ((c != d) && ((!ignoreCase) ||
+                (Character.toLowerCase(c) != Character.toLowerCase(d)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static char[] copyOf(final char[] array, final int capacity) {
+        final char[] copy = new char[capacity];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    private static int[] copyOf(final int[] array, final int capacity) {
+        final int[] copy = new int[capacity];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    private static String[] copyOf(final String[] array, final int capacity) {
+        final String[] copy = new String[capacity];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+}
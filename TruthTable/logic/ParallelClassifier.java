@@ -0,0 +1,129 @@
+/**
+ * Truth Table Constructor:
+ *     generates truth tables for statements in propositional logic
+ * Copyright (C) 2006, 2010, 2011  Brian S. Borowski
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * Email: brian_borowski AT yahoo DOT com
+ */
+package logic;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Classifies a truth table by splitting its words among the threads of a
+ * fork/join pool. The first chunk that finds a word disagreeing with the
+ * first row stops all of the others.
+ */
+public class ParallelClassifier implements Classifier {
+    private static final int WORDS_PER_CHUNK = 1024,
+                             WORDS_PER_PROGRESS_REPORT = 64;
+    private final TruthTable truthTable;
+    private final CompiledStatement compiledStatement;
+    private final int numberOfWords;
+    private final AtomicLong numberOfWordsEvaluated;
+    private volatile boolean isCancelled, isDisagreementFound;
+    private long firstWord;
+
+    public ParallelClassifier(final TruthTable truthTable) {
+        this.truthTable = truthTable;
+        compiledStatement = truthTable.getReducedStatement();
+        numberOfWords = compiledStatement.getNumberOfWords();
+        numberOfWordsEvaluated = new AtomicLong();
+    }
+
+    public long getProgress() {
+        return numberOfWordsEvaluated.get();
+    }
+
+    public long getMaximumProgress() {
+        return numberOfWords;
+    }
+
+    public void cancel() {
+        isCancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return isCancelled;
+    }
+
+    public int classify() {
+        final long mask = compiledStatement.getWordMask();
+        firstWord = compiledStatement.evaluateWord(0, compiledStatement.createWordBuffer()) & mask;
+        numberOfWordsEvaluated.set(1);
+        if ((firstWord != 0) && (firstWord != mask)) {
+            return TruthTable.CONDITIONAL;
+        }
+        final ChunkTask task = new ChunkTask(1, numberOfWords);
+        if (numberOfWords <= WORDS_PER_CHUNK) {
+            task.compute();
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+        if (isDisagreementFound) {
+            return TruthTable.CONDITIONAL;
+        } else if (isCancelled) {
+            return TruthTable.UNDEFINED;
+        } else {
+            return truthTable.getEvaluation(firstWord != 0);
+        }
+    }
+
+    private boolean isStopped() {
+        return isCancelled || isDisagreementFound;
+    }
+
+    class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int start, end;
+
+        public ChunkTask(final int start, final int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        protected void compute() {
+            if (isStopped()) {
+                return;
+            }
+            if (end - start > WORDS_PER_CHUNK) {
+                final int middle = (start + end) >>> 1;
+                invokeAll(new ChunkTask(start, middle), new ChunkTask(middle, end));
+                return;
+            }
+            final long[] values = compiledStatement.createWordBuffer();
+            int unreported = 0;
+            for (int i = start; i < end; i++) {
+                if (compiledStatement.evaluateWord(i, values) != firstWord) {
+                    isDisagreementFound = true;
+                    break;
+                }
+                if (++unreported == WORDS_PER_PROGRESS_REPORT) {
+                    numberOfWordsEvaluated.addAndGet(unreported);
+                    unreported = 0;
+                    if (isStopped()) {
+                        return;
+                    }
+                }
+            }
+            numberOfWordsEvaluated.addAndGet(unreported);
+        }
+    }
+}
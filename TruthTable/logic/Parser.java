@@ -22,17 +22,28 @@
  */
 package logic;
 
-import java.awt.Point;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.BitSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.ListIterator;
-import java.util.Stack;
 
+/**
+ * Validates a reformatted token stream and builds its expression tree in a
+ * single pass with an operator-precedence stack. The postfix stream is
+ * emitted as the tree is reduced, and removeUnnecessaryParentheses() prints
+ * the tree back with only the parentheses that precedence requires.
+ */
 public class Parser {
-    private LinkedList<Token> tokenStream;
+    private static final int VISIT = 0, VISIT_PARENTHESIZED = 1,
+        APPEND_OPERATOR = 2, APPEND_CLOSE_PARENTHESIS = 3;
+
+    private final LinkedList<Token> tokenStream;
     private final LinkedList<Token> postfixStream;
+    private Expression expression;
+    private int numberOfNodes;
+    private String statement;
+    private List<Diagnostic> diagnostics;
+    private boolean isValid;
 
     public Parser(final LinkedList<Token> tokenStream) {
         this.tokenStream = tokenStream;
@@ -43,265 +54,307 @@ public class Parser {
         return postfixStream;
     }
 
+    public Expression getExpression() {
+        return expression;
+    }
+
+    /** Returns the number of tokens, spaces included, in the token stream. */
+    public int getNumberOfTokens() {
+        return tokenStream.size();
+    }
+
     public void parse() throws ParserException {
-        final ListIterator<Token> iterator = tokenStream.listIterator(0);
-        Token token1 = null, token2 = null;
-        if (iterator.hasNext()) {
-            token1 = iterator.next();
-        }
-        while (iterator.hasNext()) {
-            token2 = iterator.next();
-            final int token1Type = token1.getType();
-            int token2Type = token2.getType();
-            if (token2Type == Token.SPACE) {
-                if (iterator.hasNext()) {
-                    token2 = iterator.next();
-                    token2Type = token2.getType();
-                }
-            }
-            switch (token1Type) {
-                case Token.PROPOSITION:
-                    if ((token2Type == Token.PROPOSITION) ||
-                        (token2Type == Token.CONSTANT) ||
-                        (token2Type == Token.UNARY_OPERATOR) ||
-                        (token2Type == Token.OPEN_PARENTHESIS)) {
-                        throw new ParserException(ParserException.MISSING_CONNECTIVE,
-                            token1.getPosition() + 2);
-                    }
-                    break;
-                case Token.CONSTANT:
-                    if ((token2Type == Token.PROPOSITION) ||
-                        (token2Type == Token.CONSTANT) ||
-                        (token2Type == Token.UNARY_OPERATOR) ||
-                        (token2Type == Token.OPEN_PARENTHESIS)) {
-                        throw new ParserException(ParserException.MISSING_CONNECTIVE,
-                            token1.getPosition() + 2);
-                    }
-                    break;
-                case Token.UNARY_OPERATOR:
-                    if ((token2Type == Token.CLOSE_PARENTHESIS) ||
-                        (token2Type == Token.BINARY_OPERATOR) ||
-                        (token2Type == Token.END)) {
-                        throw new ParserException(ParserException.MISSING_STATEMENT,
-                            token1.getPosition() + 2);
-                    }
-                    break;
-                case Token.OPEN_PARENTHESIS:
-                    if (token2Type == Token.CLOSE_PARENTHESIS) {
-                        throw new ParserException(ParserException.MISSING_STATEMENT_IN_PARENTHESES,
-                            token1.getPosition() + 2);
-                    } else if (token2Type == Token.BINARY_OPERATOR) {
-                        throw new ParserException(ParserException.MISSING_STATEMENT,
-                            token1.getPosition() + 2);
-                    } else if (token2Type == Token.END) {
-                        throw new ParserException(ParserException.ILLEGAL_USE_OF_PARENTHESES,
-                            token1.getPosition() + 1);
-                    }
-                    break;
-                case Token.CLOSE_PARENTHESIS:
-                    if ((token2Type == Token.PROPOSITION) ||
-                        (token2Type == Token.CONSTANT) ||
-                        (token2Type == Token.UNARY_OPERATOR) ||
-                        (token2Type == Token.OPEN_PARENTHESIS)) {
-                        throw new ParserException(ParserException.MISSING_CONNECTIVE,
-                            token1.getPosition() + 2);
-                    }
-                    break;
-                case Token.BINARY_OPERATOR:
-                    if ((token2Type == Token.CLOSE_PARENTHESIS) ||
-                        (token2Type == Token.BINARY_OPERATOR) ||
-                        (token2Type == Token.END)) {
-                        throw new ParserException(ParserException.MISSING_STATEMENT,
-                            token1.getPosition() + token1.getSymbol().length() + 1);
-                    }
-                    break;
-                case Token.START:
-                    if (token2Type == Token.CLOSE_PARENTHESIS) {
-                        throw new ParserException(ParserException.ILLEGAL_USE_OF_PARENTHESES,
-                            token1.getPosition() + 2);
-                    } else if (token2Type == Token.BINARY_OPERATOR) {
-                        throw new ParserException(ParserException.MISSING_STATEMENT,
-                            token1.getPosition() + 2);
-                    }
-                    break;
-                default: break;
-            }
-            token1 = token2;
-        }
-        computePostfixStream();
+        parse(null);
     }
 
-    private void computePostfixStream() throws ParserException {
-        final Stack<Token> stack = new Stack<Token>();
+    /**
+     * Parses the token stream. When a list is given, every problem found is
+     * added to it as a diagnostic and checking continues to the end of the
+     * statement instead of stopping at the first one; the expression tree
+     * and postfix stream are only built if no problem is found.
+     */
+    public void parse(final List<Diagnostic> diagnostics) throws ParserException {
+        this.diagnostics = diagnostics;
+        isValid = true;
+        final int size = tokenStream.size();
+        final Token[] operators = new Token[size];
+        final Expression[] operands = new Expression[size];
+        final BitSet propositionIds = new BitSet();
         final ListIterator<Token> iterator = tokenStream.listIterator(0);
-        Token token, stackTop = null;
+        int operatorTop = 0, operandTop = 0, depth = 0;
+        boolean isMissingOpenParenthesis = false;
+        Token previous = null;
 
         while (iterator.hasNext()) {
-            do {
-                token = iterator.next();
-            } while ((iterator.hasNext()) && (token.getType() == Token.SPACE));
-            if (!stack.empty()) {
-                stackTop = stack.peek();
-            }
+            final Token token = iterator.next();
             final int tokenType = token.getType();
-            if ((tokenType != Token.START) && (tokenType != Token.END)) {
-                if ((tokenType == Token.PROPOSITION) || (tokenType == Token.CONSTANT)) {
-                    postfixStream.add(token);
-                } else if (tokenType == Token.OPEN_PARENTHESIS) {
-                    stack.push(token);
-                } else if (tokenType == Token.CLOSE_PARENTHESIS) {
-                    while ((!stack.empty()) && (stackTop.getType() != Token.OPEN_PARENTHESIS)) {
-                        postfixStream.add(stack.pop());
-                        if (!stack.empty()) {
-                            stackTop = stack.peek();
-                        }
-                    }
-                    if (stack.empty()) {
-                        throw new ParserException(ParserException.MISSING_OPEN_PARENTHESIS, true);
-                    } else {
-                        stack.pop();
-                    }
-                } else if (stack.empty()) {
-                    stack.push(token);
-                } else if ((tokenType == Token.UNARY_OPERATOR) &&
-                           (stackTop.getPrecedence() <= token.getPrecedence())) {
-                    stack.push(token);
-                } else if (stackTop.getPrecedence() < token.getPrecedence()) {
-                    stack.push(token);
-                } else if (stackTop.isConditional() && token.isConditional()) {
-                    stack.push(token);
+            if (tokenType == Token.SPACE) {
+                continue;
+            }
+            if (previous != null) {
+                checkAdjacency(previous, token);
+            }
+            previous = token;
+            if (tokenType == Token.PROPOSITION) {
+                propositionIds.set(((PropositionToken)token).getId());
+            } else if (tokenType == Token.OPEN_PARENTHESIS) {
+                depth++;
+            } else if (tokenType == Token.CLOSE_PARENTHESIS) {
+                if (depth == 0) {
+                    // Reported once the rest of the statement has been checked.
+                    isMissingOpenParenthesis = true;
+                    isValid = false;
                 } else {
-                    while ((!stack.empty()) && (stackTop.getPrecedence() >= token.getPrecedence())) {
-                        postfixStream.add(stack.pop());
-                        if (!stack.isEmpty()) {
-                            stackTop = stack.peek();
-                        }
-                    }
-                    stack.push(token);
+                    depth--;
                 }
             }
-        }
-        while (!stack.empty()) {
-            token = stack.pop();
-            if (token.getType() != Token.OPEN_PARENTHESIS) {
+            if ((!isValid) || (tokenType == Token.START) || (tokenType == Token.END)) {
+                continue;
+            }
+            if ((tokenType == Token.PROPOSITION) || (tokenType == Token.CONSTANT)) {
+                operands[operandTop++] = new Expression(token);
                 postfixStream.add(token);
+                numberOfNodes++;
+            } else if (tokenType == Token.OPEN_PARENTHESIS) {
+                operators[operatorTop++] = token;
+            } else if (tokenType == Token.CLOSE_PARENTHESIS) {
+                while (operators[operatorTop - 1].getType() != Token.OPEN_PARENTHESIS) {
+                    operandTop = reduce(operators[--operatorTop], operands, operandTop);
+                }
+                operatorTop--;
+            } else if (operatorTop == 0) {
+                operators[operatorTop++] = token;
             } else {
-                throw new ParserException(ParserException.MISSING_CLOSE_PARENTHESIS, true);
+                final Token stackTop = operators[operatorTop - 1];
+                if (((tokenType == Token.UNARY_OPERATOR) &&
+                     (stackTop.getPrecedence() <= token.getPrecedence())) ||
+                    (stackTop.getPrecedence() < token.getPrecedence()) ||
+                    ((stackTop.isConditional()) && (token.isConditional()))) {
+                    operators[operatorTop++] = token;
+                } else {
+                    while ((operatorTop > 0) &&
+                           (operators[operatorTop - 1].getPrecedence() >= token.getPrecedence())) {
+                        operandTop = reduce(operators[--operatorTop], operands, operandTop);
+                    }
+                    operators[operatorTop++] = token;
+                }
+            }
+        }
+        if (isMissingOpenParenthesis) {
+            report(ParserException.MISSING_OPEN_PARENTHESIS, -1, true);
+        } else if (depth > 0) {
+            report(ParserException.MISSING_CLOSE_PARENTHESIS, -1, true);
+        }
+        if (isValid) {
+            while (operatorTop > 0) {
+                operandTop = reduce(operators[--operatorTop], operands, operandTop);
+            }
+            if (operandTop > 1) {
+                throw new ParserException();
             }
         }
+        if (propositionIds.cardinality() > TruthTable.MAX_PROPOSITIONS) {
+            report(ParserException.TOO_MANY_PROPOSITIONS, -1, true);
+        }
+        if (isValid) {
+            expression = (operandTop == 1) ? operands[0] : null;
+        } else {
+            postfixStream.clear();
+        }
     }
 
-    public void removeUnnecessaryParentheses() {
-        Token[] tokenArray = tokenStream.toArray(new Token[tokenStream.size()]);
-        final LinkedList<Token> newTokenStream = new LinkedList<Token>();
-        ListIterator<Token> iterator = tokenStream.listIterator(0);
-        int pos = 0;
-        while (iterator.hasNext())
-            tokenArray[pos++] = iterator.next();
-        final Stack<Integer> stack = new Stack<Integer>();
-        final ArrayList<Point> parensMatchings = new ArrayList<Point>();
+    /**
+     * Throws the given error, or records it as a diagnostic and marks the
+     * statement invalid when diagnostics are being collected.
+     */
+    private void report(final int messageType, final int xValue, final boolean selectAll)
+        throws ParserException {
 
-        Token token;
-        iterator = tokenStream.listIterator(0);
-        pos = 0;
-        while (iterator.hasNext()) {
-            token = iterator.next();
-            if (token.getType() == Token.OPEN_PARENTHESIS)
-                stack.push(pos);
-            else if (token.getType() == Token.CLOSE_PARENTHESIS)
-                parensMatchings.add(new Point(stack.pop(), pos));
-            pos++;
+        if (diagnostics == null) {
+            if (selectAll) {
+                throw new ParserException(messageType, true);
+            } else {
+                throw new ParserException(messageType, xValue);
+            }
         }
-        Collections.sort(parensMatchings, new Comparator<Point>() {
-            public int compare(final Point a, final Point b) {
-                if (a.x < b.x)
-                    return -1;
-                else if (a.x > b.x)
-                    return 1;
-                else
-                    return 0;
+        diagnostics.add(new Diagnostic(Diagnostic.PARSER, messageType, xValue, xValue, selectAll));
+        isValid = false;
+    }
+
+    private int reduce(final Token operator, final Expression[] operands,
+        int operandTop) throws ParserException {
+
+        if (operator.getType() == Token.UNARY_OPERATOR) {
+            if (operandTop < 1) {
+                throw new ParserException();
             }
-        });
-        for (int i = 0; i < parensMatchings.size(); i++)
-        {
-            boolean removalRequired = false;
-            final Point p = parensMatchings.get(i);
-            final int propositionCount =
-                getPropositionCountInsideParens(tokenArray, p.x, p.y);
-            if (propositionCount <= 1) {
-                // If there's only one proposition inside the parentheses,
-                // then the parentheses are clearly not needed.
-                removalRequired = true;
-            } else if ((p.x == 1) && (p.y == tokenArray.length - 2)) {
-                // If these parentheses surround the whole statement, then
-                // they can definitely be removed.
-                removalRequired = true;
-            } else {
-                // Check if these parentheses are duplicates, that is, they surround
-                // another set of parentheses.
-                if (i < parensMatchings.size() - 1) {
-                    final Point pLookAhead = parensMatchings.get(i+1);
-                    if (pLookAhead.y == p.y - 1) {
-                        if (pLookAhead.x == p.x + 1) {
-                            // Direct duplicates
-                            removalRequired = true;
-                        } else {
-                            // Duplicates surrounding a negation
-                            boolean isDuplicateParens = true;
-                            for (int c = p.x + 1; c < pLookAhead.x; c++) {
-                                final Token t = tokenArray[c];
-                                if (t.getType() != Token.UNARY_OPERATOR) {
-                                    isDuplicateParens = false;
-                                    break;
-                                }
-                            }
-                            removalRequired = isDuplicateParens;
-                        }
-                    }
-                }
+            operands[operandTop - 1] = new Expression(operator, operands[operandTop - 1]);
+        } else {
+            if (operandTop < 2) {
+                throw new ParserException();
             }
-            // If parentheses surround only one proposition, surround the whole
-            // statement, or are duplicates, remove them.
-            if (removalRequired) {
-                tokenArray[p.x] = null;
-                tokenArray[p.y] = null;
+            operandTop--;
+            operands[operandTop - 1] =
+                new Expression(operator, operands[operandTop - 1], operands[operandTop]);
+        }
+        postfixStream.add(operator);
+        numberOfNodes++;
+        return operandTop;
+    }
 
-                for (int j = i + 1; j < parensMatchings.size(); j++) {
-                    final Point p2 = parensMatchings.get(j);
-                    if (p.x < p2.x) p2.x--;
-                    if (p.x < p2.y) p2.y--;
-                    if (p.y < p2.x) p2.x--;
-                    if (p.y < p2.y) p2.y--;
+    private void checkAdjacency(final Token token1, final Token token2)
+        throws ParserException {
+
+        final int token2Type = token2.getType();
+        switch (token1.getType()) {
+            case Token.PROPOSITION:
+            case Token.CONSTANT:
+            case Token.CLOSE_PARENTHESIS:
+                if ((token2Type == Token.PROPOSITION) ||
+                    (token2Type == Token.CONSTANT) ||
+                    (token2Type == Token.UNARY_OPERATOR) ||
+                    (token2Type == Token.OPEN_PARENTHESIS)) {
+                    report(ParserException.MISSING_CONNECTIVE,
+                        token1.getPosition() + 2, false);
                 }
-                for (int j = p.x + 1; j < tokenArray.length; j++) {
-                    final Token t = tokenArray[j];
-                    if (t != null) {
-                        final int tPos = t.getPosition();
-                        if (tPos >= p.x)
-                            t.setPosition(tPos - 1);
-                        if (tPos >= p.y)
-                            t.setPosition(tPos - 2);
-                    }
+                break;
+            case Token.UNARY_OPERATOR:
+                if ((token2Type == Token.CLOSE_PARENTHESIS) ||
+                    (token2Type == Token.BINARY_OPERATOR) ||
+                    (token2Type == Token.END)) {
+                    report(ParserException.MISSING_STATEMENT,
+                        token1.getPosition() + 2, false);
+                }
+                break;
+            case Token.OPEN_PARENTHESIS:
+                if (token2Type == Token.CLOSE_PARENTHESIS) {
+                    report(ParserException.MISSING_STATEMENT_IN_PARENTHESES,
+                        token1.getPosition() + 2, false);
+                } else if (token2Type == Token.BINARY_OPERATOR) {
+                    report(ParserException.MISSING_STATEMENT,
+                        token1.getPosition() + 2, false);
+                } else if (token2Type == Token.END) {
+                    report(ParserException.ILLEGAL_USE_OF_PARENTHESES,
+                        token1.getPosition() + 1, false);
                 }
-                pos = 0;
-                final Token[] tempArray = new Token[tokenArray.length - 2];
-                for (int j = 0; j < tokenArray.length; j++) {
-                    final Token t = tokenArray[j];
-                    if (t != null)
-                        tempArray[pos++] = t;
+                break;
+            case Token.BINARY_OPERATOR:
+                if ((token2Type == Token.CLOSE_PARENTHESIS) ||
+                    (token2Type == Token.BINARY_OPERATOR) ||
+                    (token2Type == Token.END)) {
+                    report(ParserException.MISSING_STATEMENT,
+                        token1.getPosition() + token1.getSymbol().length() + 1, false);
                 }
-                tokenArray = tempArray;
+                break;
+            case Token.START:
+                if (token2Type == Token.CLOSE_PARENTHESIS) {
+                    report(ParserException.ILLEGAL_USE_OF_PARENTHESES,
+                        token1.getPosition() + 2, false);
+                } else if (token2Type == Token.BINARY_OPERATOR) {
+                    report(ParserException.MISSING_STATEMENT,
+                        token1.getPosition() + 2, false);
+                }
+                break;
+            default: break;
+        }
+    }
+
+    /**
+     * Prints the expression tree back into the statement, keeping a pair of
+     * parentheses only where the operand of a connective binds more loosely
+     * than the connective itself. The positions of the operator tokens are
+     * updated to match the printed statement.
+     */
+    public void removeUnnecessaryParentheses() {
+        if (expression == null) {
+            return;
+        }
+        final StringBuilder builder = new StringBuilder();
+        final Expression[] nodes = new Expression[3 * numberOfNodes + 1];
+        final int[] actions = new int[nodes.length];
+        int top = 0;
+        nodes[top] = expression;
+        actions[top++] = VISIT;
+        while (top > 0) {
+            final Expression node = nodes[--top];
+            final int action = actions[top];
+            if (action == APPEND_CLOSE_PARENTHESIS) {
+                builder.append(')');
+                continue;
+            }
+            final Token token = node.getToken();
+            if (action == APPEND_OPERATOR) {
+                builder.append(' ');
+                token.setPosition(builder.length());
+                builder.append(token.getSymbol());
+                builder.append(' ');
+                continue;
             }
+            if (action == VISIT_PARENTHESIZED) {
+                builder.append('(');
+                nodes[top] = node;
+                actions[top++] = APPEND_CLOSE_PARENTHESIS;
+            }
+            if (node.isLeaf()) {
+                token.setPosition(builder.length());
+                builder.append(token.getSymbol());
+            } else if (node.isUnary()) {
+                token.setPosition(builder.length());
+                builder.append(token.getSymbol());
+                final Expression operand = node.getLeft();
+                nodes[top] = operand;
+                actions[top++] = operand.isBinary() ? VISIT_PARENTHESIZED : VISIT;
+            } else {
+                final Expression left = node.getLeft(), right = node.getRight();
+                nodes[top] = right;
+                actions[top++] = isRightOperandParenthesized(node, right) ?
+                    VISIT_PARENTHESIZED : VISIT;
+                nodes[top] = node;
+                actions[top++] = APPEND_OPERATOR;
+                nodes[top] = left;
+                actions[top++] = isLeftOperandParenthesized(node, left) ?
+                    VISIT_PARENTHESIZED : VISIT;
+            }
+        }
+        statement = builder.toString();
+    }
+
+    private static boolean isLeftOperandParenthesized(final Expression node,
+        final Expression left) {
+
+        if (!left.isBinary()) {
+            return false;
+        }
+        return (left.getPrecedence() < node.getPrecedence()) ||
+            ((left.getPrecedence() == node.getPrecedence()) &&
+             (node.getToken().isConditional()));
+    }
+
+    private static boolean isRightOperandParenthesized(final Expression node,
+        final Expression right) {
+
+        if (!right.isBinary()) {
+            return false;
         }
-        for (int i = 0; i < tokenArray.length; i++)
-            newTokenStream.add(tokenArray[i]);
-        tokenStream = newTokenStream;
+        if (right.getPrecedence() != node.getPrecedence()) {
+            return right.getPrecedence() < node.getPrecedence();
+        }
+        if (!node.getToken().isConditional()) {
+            return true;
+        }
+        // A conditional only groups to the right when it meets another
+        // conditional on top of the stack, so the operand's own left
+        // operand must not leave anything else there.
+        return !((right.getLeft().isLeaf()) ||
+                 (isLeftOperandParenthesized(right, right.getLeft())));
     }
 
     public String getStatement() {
+        if (statement != null) {
+            return statement;
+        }
         final StringBuilder builder = new StringBuilder();
-        final LinkedList<Token> list = tokenStream;
-        final ListIterator<Token> iterator = list.listIterator(0);
+        final ListIterator<Token> iterator = tokenStream.listIterator(0);
         while (iterator.hasNext()) {
             final Token token = iterator.next();
             final int tokenType = token.getType();
@@ -311,19 +364,4 @@ public class Parser {
         }
         return builder.toString();
     }
-
-    private int getPropositionCountInsideParens(final Token[] tokenArray,
-        final int start, final int end) {
-
-        int propositionCount = 0, i = start;
-        while (i <= end) {
-            final Token token = tokenArray[i];
-            final int tokenType = token.getType();
-            if ((tokenType == Token.PROPOSITION) || (tokenType == Token.CONSTANT)) {
-                propositionCount++;
-            }
-            i++;
-        }
-        return propositionCount;
-    }
 }
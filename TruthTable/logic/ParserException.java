@@ -29,7 +29,8 @@ public class ParserException extends TruthTableException {
                       MISSING_STATEMENT_IN_PARENTHESES = 3,
                       ILLEGAL_USE_OF_PARENTHESES       = 4,
                       MISSING_OPEN_PARENTHESIS         = 5,
-                      MISSING_CLOSE_PARENTHESIS        = 6;
+                      MISSING_CLOSE_PARENTHESIS        = 6,
+                      TOO_MANY_PROPOSITIONS            = 7;
     public static String[] messageTable = {
         "An unknown error occurred while parsing the expression.",
         "Missing connective at position @X.",
@@ -37,7 +38,8 @@ public class ParserException extends TruthTableException {
         "Missing statement inside parentheses at position @X.",
         "Illegal use of parentheses at position @X.",
         "Missing opening parenthesis.",
-        "Missing closing parenthesis."
+        "Missing closing parenthesis.",
+        "Too many propositions: at most " + TruthTable.MAX_PROPOSITIONS + " are supported."
     };
     private static final long serialVersionUID = 1L;
 
@@ -23,14 +23,21 @@
 package logic;
 
 public class PropositionToken extends Token {
+    private final int id;
 
-    public PropositionToken(final String symbol, final int position) {
+    public PropositionToken(final String symbol, final int id, final int position) {
         type = Token.PROPOSITION;
         this.symbol = symbol;
+        this.id = id;
         this.position = position;
         offset = (symbol.length() - 1)/2;
     }
 
+    /** Returns the id of the proposition's name in the scanner's symbol table. */
+    public int getId() {
+        return id;
+    }
+
     public int getPrecedence() {
         return 0;
     }
@@ -0,0 +1,78 @@
+/**
+ * Truth Table Constructor:
+ *     generates truth tables for statements in propositional logic
+ * Copyright (C) 2006, 2010, 2011  Brian S. Borowski
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * Email: brian_borowski AT yahoo DOT com
+ */
+package logic;
+
+/**
+ * Renders the packed operator column values of a row into the characters
+ * displayed beneath the statement, placing each value under its operator.
+ * Bit c of the packed values, counted across consecutive words, is the
+ * value of column c.
+ */
+public class RowFormatter {
+    private final int[] columnPositions;
+    private final int rowLength, displayMethod;
+
+    public RowFormatter(final CompiledStatement compiledStatement, final int rowLength,
+        final int displayMethod) {
+
+        this.rowLength = rowLength;
+        this.displayMethod = displayMethod;
+        columnPositions = new int[compiledStatement.getNumberOfColumns()];
+        for (int i = 0; i < columnPositions.length; i++) {
+            columnPositions[i] = compiledStatement.getColumnPosition(i);
+        }
+    }
+
+    public int getRowLength() {
+        return rowLength;
+    }
+
+    public int getDisplayMethod() {
+        return displayMethod;
+    }
+
+    public void format(final long[] columnValues, final int offset, final int maxColumn,
+        final char[] row) {
+
+        format(columnValues, offset, maxColumn, row, 0);
+    }
+
+    public void format(final long[] columnValues, final int offset, final int maxColumn,
+        final char[] row, final int rowOffset) {
+
+        for (int i = rowOffset + rowLength - 1; i >= rowOffset; i--) {
+            row[i] = ' ';
+        }
+        final int lastColumn = Math.min(maxColumn, columnPositions.length - 1);
+        for (int i = 0; i <= lastColumn; i++) {
+            row[rowOffset + columnPositions[i]] = TruthValue.getTruthValueChar(
+                ((columnValues[offset + (i >>> 6)] >>> i) & 1L) != 0, displayMethod);
+        }
+    }
+
+    public String format(final long[] columnValues, final int maxColumn) {
+        final char[] row = new char[rowLength];
+        format(columnValues, 0, maxColumn, row);
+        return new String(row);
+    }
+}
@@ -0,0 +1,169 @@
+/**
+ * Truth Table Constructor:
+ *     generates truth tables for statements in propositional logic
+ * Copyright (C) 2006, 2010, 2011  Brian S. Borowski
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * Email: brian_borowski AT yahoo DOT com
+ */
+package logic;
+
+/**
+ * Classifies a statement without enumerating its rows by asking a SAT
+ * solver whether the statement and its negation are satisfiable. Both
+ * questions are posed over a Tseitin encoding of the compiled statement.
+ */
+public class SatClassifier implements Classifier {
+    private final TruthTable truthTable;
+    private final CompiledStatement compiledStatement;
+    private volatile SatSolver solver;
+    private volatile boolean isCancelled;
+    private long satisfyingRow, falsifyingRow;
+
+    public SatClassifier(final TruthTable truthTable) {
+        this.truthTable = truthTable;
+        compiledStatement = truthTable.getReducedStatement();
+        satisfyingRow = falsifyingRow = -1;
+    }
+
+    public int classify() {
+        satisfyingRow = findRow(true);
+        if (isCancelled) {
+            return TruthTable.UNDEFINED;
+        }
+        falsifyingRow = findRow(false);
+        if (isCancelled) {
+            return TruthTable.UNDEFINED;
+        }
+        if ((satisfyingRow != -1) && (falsifyingRow != -1)) {
+            return TruthTable.CONDITIONAL;
+        } else {
+            return truthTable.getEvaluation(satisfyingRow != -1);
+        }
+    }
+
+    public long getSatisfyingRow() {
+        return satisfyingRow;
+    }
+
+    public long getFalsifyingRow() {
+        return falsifyingRow;
+    }
+
+    public void cancel() {
+        isCancelled = true;
+        final SatSolver currentSolver = solver;
+        if (currentSolver != null) {
+            currentSolver.cancel();
+        }
+    }
+
+    public long getProgress() {
+        return 0;
+    }
+
+    public long getMaximumProgress() {
+        return 0;
+    }
+
+    private long findRow(final boolean value) {
+        final SatSolver currentSolver = new SatSolver();
+        solver = currentSolver;
+        if (isCancelled) {
+            return -1;
+        }
+        final int numberOfPropositions = compiledStatement.getNumberOfPropositions();
+        final int root = encode(currentSolver);
+        currentSolver.addClause(value ? root : SatSolver.negate(root));
+        if (currentSolver.solve() != SatSolver.SATISFIABLE) {
+            return -1;
+        }
+        long row = 0;
+        for (int i = 0; i < numberOfPropositions; i++) {
+            if (currentSolver.getValue(i)) {
+                row |= 1L << (numberOfPropositions - i - 1);
+            }
+        }
+        return compiledStatement.toOriginalRow(row);
+    }
+
+    private int encode(final SatSolver solver) {
+        final int numberOfPropositions = compiledStatement.getNumberOfPropositions(),
+                  numberOfInstructions = compiledStatement.getNumberOfInstructions();
+        for (int i = 0; i < numberOfPropositions; i++) {
+            solver.newVariable();
+        }
+        final int trueLiteral = SatSolver.positive(solver.newVariable());
+        solver.addClause(trueLiteral);
+
+        // Each instruction is mapped to a literal. Negations and
+        // biconditionals reuse the literal of the connective they negate.
+        final int[] literals = new int[numberOfInstructions];
+        for (int i = 0; i < numberOfInstructions; i++) {
+            final int operand1 = compiledStatement.getOperand1(i),
+                      operand2 = compiledStatement.getOperand2(i);
+            switch (compiledStatement.getOpcode(i)) {
+                case CompiledStatement.LOAD:
+                    literals[i] = SatSolver.positive(numberOfPropositions - operand1 - 1);
+                    break;
+                case CompiledStatement.CONSTANT:
+                    literals[i] = (operand1 != 0) ? trueLiteral : SatSolver.negate(trueLiteral);
+                    break;
+                case CompiledStatement.NEGATION:
+                    literals[i] = SatSolver.negate(literals[operand1]);
+                    break;
+                case CompiledStatement.CONJUNCTION:
+                    literals[i] = encodeConjunction(solver, literals[operand1], literals[operand2]);
+                    break;
+                case CompiledStatement.INCLUSIVE_DISJUNCTION:
+                    literals[i] = SatSolver.negate(encodeConjunction(solver,
+                        SatSolver.negate(literals[operand1]), SatSolver.negate(literals[operand2])));
+                    break;
+                case CompiledStatement.CONDITIONAL:
+                    literals[i] = SatSolver.negate(encodeConjunction(solver,
+                        literals[operand1], SatSolver.negate(literals[operand2])));
+                    break;
+                case CompiledStatement.EXCLUSIVE_DISJUNCTION:
+                    literals[i] = encodeExclusiveDisjunction(solver, literals[operand1], literals[operand2]);
+                    break;
+                case CompiledStatement.BICONDITIONAL:
+                    literals[i] = SatSolver.negate(
+                        encodeExclusiveDisjunction(solver, literals[operand1], literals[operand2]));
+                    break;
+                default: break;
+            }
+        }
+        return literals[numberOfInstructions - 1];
+    }
+
+    private static int encodeConjunction(final SatSolver solver, final int a, final int b) {
+        final int x = SatSolver.positive(solver.newVariable());
+        solver.addClause(SatSolver.negate(x), a);
+        solver.addClause(SatSolver.negate(x), b);
+        solver.addClause(x, SatSolver.negate(a), SatSolver.negate(b));
+        return x;
+    }
+
+    private static int encodeExclusiveDisjunction(final SatSolver solver, final int a, final int b) {
+        final int x = SatSolver.positive(solver.newVariable());
+        solver.addClause(SatSolver.negate(x), a, b);
+        solver.addClause(SatSolver.negate(x), SatSolver.negate(a), SatSolver.negate(b));
+        solver.addClause(x, SatSolver.negate(a), b);
+        solver.addClause(x, a, SatSolver.negate(b));
+        return x;
+    }
+}
@@ -0,0 +1,432 @@
+/**
+ * Truth Table Constructor:
+ *     generates truth tables for statements in propositional logic
+ * Copyright (C) 2006, 2010, 2011  Brian S. Borowski
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * Email: brian_borowski AT yahoo DOT com
+ */
+package logic;
+
+import java.util.ArrayList;
+
+/**
+ * A conflict-driven clause learning SAT solver with two watched literals,
+ * first-UIP learning, activity-ordered decisions, phase saving and
+ * geometric restarts. A literal is twice its variable, plus one if it is
+ * negated.
+ */
+public class SatSolver {
+    public static final int UNKNOWN       = -1,
+                            UNSATISFIABLE =  0,
+                            SATISFIABLE   =  1;
+    private static final int TRUE = 1, FALSE = -1, NO_REASON = -1;
+    private static final double ACTIVITY_DECAY = 0.95, ACTIVITY_LIMIT = 1e100;
+    private static final int FIRST_RESTART = 100;
+    private static final double RESTART_FACTOR = 1.5;
+
+    private final ArrayList<int[]> clauses;
+    private IntVector[] watches;
+    private int[] assigns, levels, reasons, trail, trailLimits, heap, heapIndex;
+    private double[] activity;
+    private boolean[] phases, seen;
+    private int numberOfVariables, trailSize, propagationHead, decisionLevel, heapSize;
+    private double activityIncrement;
+    private boolean isUnsatisfiable;
+    private volatile boolean isCancelled;
+
+    public SatSolver() {
+        clauses = new ArrayList<int[]>();
+        activityIncrement = 1;
+        allocate(16);
+    }
+
+    public static int positive(final int variable) {
+        return variable << 1;
+    }
+
+    public static int negative(final int variable) {
+        return (variable << 1) | 1;
+    }
+
+    public static int negate(final int literal) {
+        return literal ^ 1;
+    }
+
+    public int getNumberOfVariables() {
+        return numberOfVariables;
+    }
+
+    public int newVariable() {
+        if (numberOfVariables == assigns.length) {
+            allocate(assigns.length << 1);
+        }
+        final int variable = numberOfVariables++;
+        watches[positive(variable)] = new IntVector();
+        watches[negative(variable)] = new IntVector();
+        reasons[variable] = NO_REASON;
+        heapIndex[variable] = -1;
+        insertIntoHeap(variable);
+        return variable;
+    }
+
+    public boolean getValue(final int variable) {
+        return assigns[variable] == TRUE;
+    }
+
+    public void cancel() {
+        isCancelled = true;
+    }
+
+    public void addClause(final int... literals) {
+        if (isUnsatisfiable) {
+            return;
+        }
+        final int[] clause = new int[literals.length];
+        int size = 0;
+        for (int i = 0; i < literals.length; i++) {
+            final int literal = literals[i];
+            final int value = value(literal);
+            if ((value == TRUE) || (contains(clause, size, negate(literal)))) {
+                return;
+            } else if ((value != FALSE) && (!contains(clause, size, literal))) {
+                clause[size++] = literal;
+            }
+        }
+        if (size == 0) {
+            isUnsatisfiable = true;
+        } else if (size == 1) {
+            enqueue(clause[0], NO_REASON);
+            if (propagate() != NO_REASON) {
+                isUnsatisfiable = true;
+            }
+        } else {
+            final int[] trimmedClause = new int[size];
+            System.arraycopy(clause, 0, trimmedClause, 0, size);
+            attachClause(trimmedClause);
+        }
+    }
+
+    public int solve() {
+        if ((isUnsatisfiable) || (propagate() != NO_REASON)) {
+            isUnsatisfiable = true;
+            return UNSATISFIABLE;
+        }
+        final IntVector learnt = new IntVector();
+        int conflictsUntilRestart = FIRST_RESTART;
+        double restartLimit = FIRST_RESTART;
+        while (!isCancelled) {
+            final int conflict = propagate();
+            if (conflict != NO_REASON) {
+                if (decisionLevel == 0) {
+                    isUnsatisfiable = true;
+                    return UNSATISFIABLE;
+                }
+                final int backtrackLevel = analyze(conflict, learnt);
+                backtrack(backtrackLevel);
+                if (learnt.size == 1) {
+                    enqueue(learnt.data[0], NO_REASON);
+                } else {
+                    final int[] clause = learnt.toArray();
+                    enqueue(clause[0], attachClause(clause));
+                }
+                activityIncrement /= ACTIVITY_DECAY;
+                if (--conflictsUntilRestart == 0) {
+                    restartLimit *= RESTART_FACTOR;
+                    conflictsUntilRestart = (int)restartLimit;
+                    backtrack(0);
+                }
+            } else {
+                final int variable = nextDecisionVariable();
+                if (variable == -1) {
+                    return SATISFIABLE;
+                }
+                trailLimits[decisionLevel++] = trailSize;
+                enqueue(phases[variable] ? positive(variable) : negative(variable), NO_REASON);
+            }
+        }
+        return UNKNOWN;
+    }
+
+    private void allocate(final int capacity) {
+        final int oldCapacity = (assigns == null) ? 0 : assigns.length;
+        assigns = grow(assigns, capacity);
+        levels = grow(levels, capacity);
+        reasons = grow(reasons, capacity);
+        trail = grow(trail, capacity);
+        trailLimits = grow(trailLimits, capacity + 1);
+        heap = grow(heap, capacity);
+        heapIndex = grow(heapIndex, capacity);
+        final double[] newActivity = new double[capacity];
+        final boolean[] newPhases = new boolean[capacity], newSeen = new boolean[capacity];
+        final IntVector[] newWatches = new IntVector[capacity << 1];
+        if (oldCapacity > 0) {
+            System.arraycopy(activity, 0, newActivity, 0, oldCapacity);
+            System.arraycopy(phases, 0, newPhases, 0, oldCapacity);
+            System.arraycopy(watches, 0, newWatches, 0, oldCapacity << 1);
+        }
+        activity = newActivity;
+        phases = newPhases;
+        seen = newSeen;
+        watches = newWatches;
+    }
+
+    private static int[] grow(final int[] array, final int capacity) {
+        final int[] newArray = new int[capacity];
+        if (array != null) {
+            System.arraycopy(array, 0, newArray, 0, array.length);
+        }
+        return newArray;
+    }
+
+    private static boolean contains(final int[] array, final int size, final int value) {
+        for (int i = 0; i < size; i++) {
+            if (array[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int value(final int literal) {
+        final int value = assigns[literal >> 1];
+        return ((literal & 1) == 0) ? value : -value;
+    }
+
+    private int attachClause(final int[] clause) {
+        final int index = clauses.size();
+        clauses.add(clause);
+        watches[clause[0]].add(index);
+        watches[clause[1]].add(index);
+        return index;
+    }
+
+    private void enqueue(final int literal, final int reason) {
+        final int variable = literal >> 1;
+        assigns[variable] = ((literal & 1) == 0) ? TRUE : FALSE;
+        levels[variable] = decisionLevel;
+        reasons[variable] = reason;
+        trail[trailSize++] = literal;
+    }
+
+    private int propagate() {
+        int conflict = NO_REASON;
+        while (propagationHead < trailSize) {
+            final int falseLiteral = negate(trail[propagationHead++]);
+            final IntVector watchList = watches[falseLiteral];
+            final int[] watchers = watchList.data;
+            final int size = watchList.size;
+            int i = 0, j = 0;
+            while (i < size) {
+                final int index = watchers[i++];
+                final int[] clause = clauses.get(index);
+                if (clause[0] == falseLiteral) {
+                    clause[0] = clause[1];
+                    clause[1] = falseLiteral;
+                }
+                if (value(clause[0]) == TRUE) {
+                    watchers[j++] = index;
+                    continue;
+                }
+                boolean isNewWatchFound = false;
+                for (int k = 2; k < clause.length; k++) {
+                    if (value(clause[k]) != FALSE) {
+                        clause[1] = clause[k];
+                        clause[k] = falseLiteral;
+                        watches[clause[1]].add(index);
+                        isNewWatchFound = true;
+                        break;
+                    }
+                }
+                if (isNewWatchFound) {
+                    continue;
+                }
+                watchers[j++] = index;
+                if (value(clause[0]) == FALSE) {
+                    conflict = index;
+                    propagationHead = trailSize;
+                    while (i < size) {
+                        watchers[j++] = watchers[i++];
+                    }
+                } else {
+                    enqueue(clause[0], index);
+                }
+            }
+            watchList.size = j;
+        }
+        return conflict;
+    }
+
+    private int analyze(final int conflict, final IntVector learnt) {
+        learnt.clear();
+        learnt.add(-1);
+        int pathCount = 0, literal = -1, index = trailSize - 1, reason = conflict;
+        do {
+            final int[] clause = clauses.get(reason);
+            for (int j = (literal == -1) ? 0 : 1; j < clause.length; j++) {
+                final int q = clause[j], variable = q >> 1;
+                if ((!seen[variable]) && (levels[variable] > 0)) {
+                    seen[variable] = true;
+                    bumpActivity(variable);
+                    if (levels[variable] >= decisionLevel) {
+                        pathCount++;
+                    } else {
+                        learnt.add(q);
+                    }
+                }
+            }
+            while (!seen[trail[index] >> 1]) {
+                index--;
+            }
+            literal = trail[index--];
+            reason = reasons[literal >> 1];
+            seen[literal >> 1] = false;
+            pathCount--;
+        } while (pathCount > 0);
+        learnt.data[0] = negate(literal);
+
+        int backtrackLevel = 0;
+        for (int i = 1; i < learnt.size; i++) {
+            final int variable = learnt.data[i] >> 1;
+            seen[variable] = false;
+            if (levels[variable] > backtrackLevel) {
+                backtrackLevel = levels[variable];
+                final int swap = learnt.data[1];
+                learnt.data[1] = learnt.data[i];
+                learnt.data[i] = swap;
+            }
+        }
+        return backtrackLevel;
+    }
+
+    private void backtrack(final int level) {
+        if (decisionLevel <= level) {
+            return;
+        }
+        final int limit = trailLimits[level];
+        for (int i = trailSize - 1; i >= limit; i--) {
+            final int variable = trail[i] >> 1;
+            phases[variable] = (trail[i] & 1) == 0;
+            assigns[variable] = 0;
+            reasons[variable] = NO_REASON;
+            if (heapIndex[variable] == -1) {
+                insertIntoHeap(variable);
+            }
+        }
+        trailSize = limit;
+        propagationHead = limit;
+        decisionLevel = level;
+    }
+
+    private int nextDecisionVariable() {
+        while (heapSize > 0) {
+            final int variable = removeMaximumFromHeap();
+            if (assigns[variable] == 0) {
+                return variable;
+            }
+        }
+        return -1;
+    }
+
+    private void bumpActivity(final int variable) {
+        activity[variable] += activityIncrement;
+        if (activity[variable] > ACTIVITY_LIMIT) {
+            for (int i = 0; i < numberOfVariables; i++) {
+                activity[i] /= ACTIVITY_LIMIT;
+            }
+            activityIncrement /= ACTIVITY_LIMIT;
+        }
+        if (heapIndex[variable] != -1) {
+            siftUp(heapIndex[variable]);
+        }
+    }
+
+    private void insertIntoHeap(final int variable) {
+        heap[heapSize] = variable;
+        heapIndex[variable] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private int removeMaximumFromHeap() {
+        final int variable = heap[0];
+        heapIndex[variable] = -1;
+        if (--heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapIndex[heap[0]] = 0;
+            siftDown(0);
+        }
+        return variable;
+    }
+
+    private void siftUp(int position) {
+        final int variable = heap[position];
+        while (position > 0) {
+            final int parent = (position - 1) >> 1;
+            if (activity[heap[parent]] >= activity[variable]) {
+                break;
+            }
+            heap[position] = heap[parent];
+            heapIndex[heap[position]] = position;
+            position = parent;
+        }
+        heap[position] = variable;
+        heapIndex[variable] = position;
+    }
+
+    private void siftDown(int position) {
+        final int variable = heap[position];
+        while (true) {
+            int child = (position << 1) + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if ((child + 1 < heapSize) && (activity[heap[child + 1]] > activity[heap[child]])) {
+                child++;
+            }
+            if (activity[heap[child]] <= activity[variable]) {
+                break;
+            }
+            heap[position] = heap[child];
+            heapIndex[heap[position]] = position;
+            position = child;
+        }
+        heap[position] = variable;
+        heapIndex[variable] = position;
+    }
+
+    static class IntVector {
+        int[] data = new int[4];
+        int size;
+
+        void add(final int value) {
+            if (size == data.length) {
+                data = grow(data, size << 1);
+            }
+            data[size++] = value;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        int[] toArray() {
+            final int[] array = new int[size];
+            System.arraycopy(data, 0, array, 0, size);
+            return array;
+        }
+    }
+}
@@ -22,8 +22,13 @@
  */
 package logic;
 
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.ListIterator;
 
 public class Scanner {
@@ -32,18 +37,8 @@ public class Scanner {
 
     /* Static initializer for HashMap of symbols */
     static {
-        symbolTable.put("biconditional1",        "<=>");
-        symbolTable.put("biconditional2",        "<->");
         symbolTable.put("close_parenthesis",     ")"  );
-        symbolTable.put("conditional1",          "=>" );
-        symbolTable.put("conditional2",          "->" );
-        symbolTable.put("conjunction1",          "&"  );
-        symbolTable.put("conjunction2",          "^"  );
         symbolTable.put("end",                   "$"  );
-        symbolTable.put("exclusive_disjunction", "+"  );
-        symbolTable.put("inclusive_disjunction", "v"  );
-        symbolTable.put("negation1",             "~"  );
-        symbolTable.put("negation2",             "!"  );
         symbolTable.put("open_parenthesis",      "("  );
         symbolTable.put("space",                 " "  );
         symbolTable.put("start",                 "@"  );
@@ -52,94 +47,97 @@ public class Scanner {
     }
 
     private LinkedList<Token> tokenStream;
-    private int i, positionOfFirstBadChar;
-    private final String statement,
-                   inclusive_disjunction = symbolTable.get("inclusive_disjunction"),
-                   open_parenthesis      = symbolTable.get("open_parenthesis"),
-                   close_parenthesis     = symbolTable.get("close_parenthesis"),
-                   negation1             = symbolTable.get("negation1"),
-                   negation2             = symbolTable.get("negation2"),
-                   conjunction1          = symbolTable.get("conjunction1"),
-                   conjunction2          = symbolTable.get("conjunction2"),
-                   exclusive_disjunction = symbolTable.get("exclusive_disjunction"),
-                   conditional1          = symbolTable.get("conditional1"),
-                   conditional2          = symbolTable.get("conditional2"),
-                   biconditional1        = symbolTable.get("biconditional1"),
-                   biconditional2        = symbolTable.get("biconditional2"),
-                   space                 = symbolTable.get("space"),
-                   constant_true         = symbolTable.get("constant_true"),
-                   constant_false        = symbolTable.get("constant_false");
+    private final Lexer lexer;
+    private final String open_parenthesis  = symbolTable.get("open_parenthesis"),
+                         close_parenthesis = symbolTable.get("close_parenthesis"),
+                         constant_true     = symbolTable.get("constant_true"),
+                         constant_false    = symbolTable.get("constant_false");
 
     public Scanner(final String statement) {
-        this.statement = statement;
+        lexer = new Lexer(statement);
         tokenStream = new LinkedList<Token>();
     }
 
+    /**
+     * Creates a scanner that tokenizes the statement while reading it, so
+     * statements of any length can be loaded from a file or a stream.
+     */
+    public Scanner(final Reader reader) {
+        lexer = new Lexer(reader);
+        tokenStream = new LinkedList<Token>();
+    }
+
+    public Scanner(final ReadableByteChannel channel, final Charset charset) {
+        this(Channels.newReader(channel, charset.newDecoder(), -1));
+    }
+
     public LinkedList<Token> getTokenStream() {
         return tokenStream;
     }
 
+    public SymbolTable getSymbolTable() {
+        return lexer.getSymbolTable();
+    }
+
     public void tokenize() throws ScannerException {
-        final int statementLength = statement.length();
-        i = 0;
-        positionOfFirstBadChar = -1;
-        char c;
+        tokenize(null);
+    }
 
+    /**
+     * Tokenizes the statement, adding every illegal symbol to the given list
+     * instead of throwing on the first one when the list is not null.
+     */
+    public void tokenize(final List<Diagnostic> diagnostics) throws ScannerException {
+        lexer.tokenize(diagnostics);
+        final SymbolTable propositions = lexer.getSymbolTable();
+        final int numberOfTokens = lexer.getNumberOfTokens();
         tokenStream.add(new StartToken(symbolTable.get("start")));
-        while (i < statementLength) {
-            c = statement.charAt(i);
-            if (c == inclusive_disjunction.charAt(0)) {
-                positionOfFirstBadChar = reportError(positionOfFirstBadChar, i - 1);
-                tokenStream.add(new InclusiveDisjunctionToken(inclusive_disjunction, i));
-            } else if (c == open_parenthesis.charAt(0)) {
-                positionOfFirstBadChar = reportError(positionOfFirstBadChar, i - 1);
-                tokenStream.add(new OpenParenthesisToken(open_parenthesis, i));
-            } else if (c == close_parenthesis.charAt(0)) {
-                positionOfFirstBadChar = reportError(positionOfFirstBadChar, i - 1);
-                tokenStream.add(new CloseParenthesisToken(close_parenthesis, i));
-            } else if ((c == negation1.charAt(0)) || (c == negation2.charAt(0))) {
-                positionOfFirstBadChar = reportError(positionOfFirstBadChar, i - 1);
-                tokenStream.add(new NegationToken(String.valueOf(c), i));
-            } else if ((c == conjunction1.charAt(0)) || (c == conjunction2.charAt(0))) {
-                positionOfFirstBadChar = reportError(positionOfFirstBadChar, i - 1);
-                tokenStream.add(new ConjunctionToken(String.valueOf(c), i));
-            } else if (c == exclusive_disjunction.charAt(0)) {
-                positionOfFirstBadChar = reportError(positionOfFirstBadChar, i - 1);
-                tokenStream.add(new ExclusiveDisjunctionToken(exclusive_disjunction, i));
-            } else if (c == constant_false.charAt(0)) {
-                positionOfFirstBadChar = reportError(positionOfFirstBadChar, i - 1);
-                tokenStream.add(new ConstantToken(constant_false, i, false));
-            } else if (c == constant_true.charAt(0)) {
-                positionOfFirstBadChar = reportError(positionOfFirstBadChar, i - 1);
-                tokenStream.add(new ConstantToken(constant_true, i, true));
-            } else if (c == conditional1.charAt(0)) {
-                positionOfFirstBadChar = reportError(positionOfFirstBadChar, i - 1);
-                scanMultiCharSymbol(conditional1, new ConditionalToken(conditional1, i), true);
-            } else if (c == conditional2.charAt(0)) {
-                positionOfFirstBadChar = reportError(positionOfFirstBadChar, i - 1);
-                scanMultiCharSymbol(conditional2, new ConditionalToken(conditional2, i), true);
-            } else if (c == biconditional1.charAt(0)) {
-                positionOfFirstBadChar = reportError(positionOfFirstBadChar, i - 1);
-                final int current = i;
-                final boolean isOK = scanMultiCharSymbol(biconditional1, new BiconditionalToken(biconditional1, i), false);
-                if (!isOK) {
-                    i = current;
-                    scanMultiCharSymbol(biconditional2, new BiconditionalToken(biconditional2, i), true);
-                }
-            } else if (((c >= 'A') && (c <= 'Z')) || ((c >= 'a') && (c <= 'z'))) {
-                positionOfFirstBadChar = reportError(positionOfFirstBadChar, i - 1);
-                tokenStream.add(new PropositionToken(String.valueOf(Character.toUpperCase(c)), i));
-            } else if (c == space.charAt(0)) {
-                positionOfFirstBadChar = reportError(positionOfFirstBadChar, i - 1);
-            } else if (positionOfFirstBadChar == -1) {
-                positionOfFirstBadChar = i;
+        for (int i = 0; i < numberOfTokens; i++) {
+            final int start = lexer.getStart(i), symbol = lexer.getSymbol(i);
+            switch (lexer.getKind(i)) {
+                case Token.PROPOSITION:
+                    tokenStream.add(new PropositionToken(propositions.getName(symbol), symbol, start));
+                    break;
+                case Token.CONSTANT:
+                    if (symbol != 0) {
+                        tokenStream.add(new ConstantToken(constant_true, start, true));
+                    } else {
+                        tokenStream.add(new ConstantToken(constant_false, start, false));
+                    }
+                    break;
+                case Token.OPEN_PARENTHESIS:
+                    tokenStream.add(new OpenParenthesisToken(open_parenthesis, start));
+                    break;
+                case Token.CLOSE_PARENTHESIS:
+                    tokenStream.add(new CloseParenthesisToken(close_parenthesis, start));
+                    break;
+                default:
+                    tokenStream.add(createOperatorToken(symbol, lexer.getText(i), start));
+                    break;
             }
-            i++;
         }
-        positionOfFirstBadChar = reportError(positionOfFirstBadChar, --i);
         tokenStream.add(new EndToken(symbolTable.get("end")));
     }
 
+    private static Token createOperatorToken(final int opcode, final String symbol,
+        final int position) {
+
+        switch (opcode) {
+            case CompiledStatement.NEGATION:
+                return new NegationToken(symbol, position);
+            case CompiledStatement.CONJUNCTION:
+                return new ConjunctionToken(symbol, position);
+            case CompiledStatement.INCLUSIVE_DISJUNCTION:
+                return new InclusiveDisjunctionToken(symbol, position);
+            case CompiledStatement.EXCLUSIVE_DISJUNCTION:
+                return new ExclusiveDisjunctionToken(symbol, position);
+            case CompiledStatement.CONDITIONAL:
+                return new ConditionalToken(symbol, position);
+            default:
+                return new BiconditionalToken(symbol, position);
+        }
+    }
+
     public void reformat() {
         final LinkedList<Token> list = tokenStream;
         final ListIterator<Token> iterator = list.listIterator(0);
@@ -208,67 +206,4 @@ public class Scanner {
         }
         return builder.toString();
     }
-
-    private boolean scanMultiCharSymbol(final String symbol, final Token token, final boolean isFinalMatch) throws ScannerException {
-        positionOfFirstBadChar = -1;
-        int symbolPos = 1;
-        final int symbolLength = symbol.length(), initialValueOfI = i;
-        while (true) {
-            i++;
-            if (i >= statement.length()) {
-                if (isFinalMatch) {
-                    positionOfFirstBadChar = reportError(initialValueOfI, i - 1);
-                } else {
-                    return false;
-                }
-            }
-            final char c = statement.charAt(i);
-            if ((symbolPos < symbolLength) && (c == symbol.charAt(symbolPos))) {
-                if (symbolPos + 1 == symbolLength) {
-                    if (positionOfFirstBadChar != -1) {
-                        if (isFinalMatch) {
-                            positionOfFirstBadChar = reportError(initialValueOfI, i);
-                        } else {
-                            return false;
-                        }
-                    }
-                    tokenStream.add(token);
-                    break;
-                }
-                symbolPos++;
-            } else {
-                if (positionOfFirstBadChar == -1) {
-                    positionOfFirstBadChar = i;
-                }
-                if ((c == negation1.charAt(0))     || (c == negation2.charAt(0))        ||
-                    (c == constant_true.charAt(0)) || (c == constant_false.charAt(0))   ||
-                    (c == space.charAt(0))         || (c == open_parenthesis.charAt(0)) ||
-                    ((c >= 'A') && (c <= 'Z'))     || ((c >= 'a') && (c <= 'z'))) {
-                    i--;
-                    if (isFinalMatch) {
-                        positionOfFirstBadChar = reportError(initialValueOfI, i);
-                    } else {
-                        return false;
-                    }
-                } else {
-                    symbolPos++;
-                }
-            }
-        }
-        return true;
-    }
-
-    private int reportError(final int positionOfFirstBadChar,
-        final int positionOfCurrentChar) throws ScannerException {
-        if (positionOfFirstBadChar != -1) {
-            if (positionOfCurrentChar - positionOfFirstBadChar < 1) {
-                throw new ScannerException(ScannerException.ILLEGAL_SYMBOL,
-                    positionOfFirstBadChar + 1);
-            } else {
-                throw new ScannerException(ScannerException.ILLEGAL_SYMBOLS,
-                    positionOfFirstBadChar + 1, positionOfCurrentChar + 1);
-            }
-        }
-        return -1;
-    }
 }
@@ -25,11 +25,15 @@ package logic;
 public class ScannerException extends TruthTableException {
     public static int UNKNOWN_ERROR   = 0,
                       ILLEGAL_SYMBOL  = 1,
-                      ILLEGAL_SYMBOLS = 2;
+                      ILLEGAL_SYMBOLS = 2,
+                      READ_ERROR      = 3,
+                      AMBIGUOUS_DISJUNCTION = 4;
     public static String[] messageTable = {
         "An unknown error occurred while scanning the statement.",
         "Illegal symbol at position @X.",
-        "Illegal symbol from positions @X to @Y."
+        "Illegal symbol from positions @X to @Y.",
+        "The statement could not be read.",
+        "Ambiguous v in the name from positions @X to @Y; separate a disjunction with spaces."
     };
     private static final long serialVersionUID = 1L;
 
@@ -40,6 +44,11 @@ public class ScannerException extends TruthTableException {
         super.message = messageTable[0];
     }
 
+    public ScannerException(final int messageType) {
+        super.message = messageTable[messageType];
+        this.messageType = messageType;
+    }
+
     public ScannerException(final int messageType, final int xValue) {
         super.message = messageTable[messageType];
         this.messageType = messageType;
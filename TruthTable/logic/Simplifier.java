@@ -0,0 +1,262 @@
+/**
+ * Truth Table Constructor:
+ *     generates truth tables for statements in propositional logic
+ * Copyright (C) 2006, 2010, 2011  Brian S. Borowski
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * Email: brian_borowski AT yahoo DOT com
+ */
+package logic;
+
+import java.util.Arrays;
+
+/**
+ * Rewrites a compiled statement into a smaller equivalent one for
+ * classification. Constants are folded, double negations cancelled, and
+ * idempotent, complementary and absorbed operands removed as each
+ * instruction is rebuilt; propositions that no longer occur are then
+ * dropped, so the reduced statement ranges over fewer rows. The rows of
+ * the reduced statement can be mapped back with
+ * CompiledStatement.toOriginalRow.
+ */
+public class Simplifier {
+    private final CompiledStatement compiledStatement;
+    private int[] opcodes, operands1, operands2, instructionTable;
+    private int numberOfInstructions, mask;
+
+    public Simplifier(final CompiledStatement compiledStatement) {
+        this.compiledStatement = compiledStatement;
+    }
+
+    public CompiledStatement simplify() {
+        final int size = compiledStatement.getNumberOfInstructions();
+        opcodes = new int[size];
+        operands1 = new int[size];
+        operands2 = new int[size];
+        int capacity = 16;
+        while (capacity < size << 1) {
+            capacity <<= 1;
+        }
+        instructionTable = new int[capacity];
+        Arrays.fill(instructionTable, -1);
+        mask = capacity - 1;
+        numberOfInstructions = 0;
+
+        final int[] map = new int[size];
+        for (int i = 0; i < size; i++) {
+            final int opcode = compiledStatement.getOpcode(i),
+                      operand1 = compiledStatement.getOperand1(i),
+                      operand2 = compiledStatement.getOperand2(i);
+            switch (opcode) {
+                case CompiledStatement.LOAD:
+                    map[i] = emit(CompiledStatement.LOAD, operand1, 0);
+                    break;
+                case CompiledStatement.CONSTANT:
+                    map[i] = constant(operand1 != 0);
+                    break;
+                case CompiledStatement.NEGATION:
+                    map[i] = not(map[operand1]);
+                    break;
+                default:
+                    map[i] = binary(opcode, map[operand1], map[operand2]);
+                    break;
+            }
+        }
+        return compact(map[size - 1]);
+    }
+
+    private int binary(final int opcode, int a, int b) {
+        if ((opcode != CompiledStatement.CONDITIONAL) && (a > b)) {
+            final int swap = a;
+            a = b;
+            b = swap;
+        }
+        switch (opcode) {
+            case CompiledStatement.CONJUNCTION:
+                if (a == b) {
+                    return a;
+                } else if (isConstant(a)) {
+                    return (operands1[a] != 0) ? b : a;
+                } else if (isConstant(b)) {
+                    return (operands1[b] != 0) ? a : b;
+                } else if (isComplement(a, b)) {
+                    return constant(false);
+                } else if (hasOperand(b, CompiledStatement.INCLUSIVE_DISJUNCTION, a)) {
+                    return a;
+                } else if (hasOperand(a, CompiledStatement.INCLUSIVE_DISJUNCTION, b)) {
+                    return b;
+                }
+                break;
+            case CompiledStatement.INCLUSIVE_DISJUNCTION:
+                if (a == b) {
+                    return a;
+                } else if (isConstant(a)) {
+                    return (operands1[a] != 0) ? a : b;
+                } else if (isConstant(b)) {
+                    return (operands1[b] != 0) ? b : a;
+                } else if (isComplement(a, b)) {
+                    return constant(true);
+                } else if (hasOperand(b, CompiledStatement.CONJUNCTION, a)) {
+                    return a;
+                } else if (hasOperand(a, CompiledStatement.CONJUNCTION, b)) {
+                    return b;
+                }
+                break;
+            case CompiledStatement.EXCLUSIVE_DISJUNCTION:
+                if (a == b) {
+                    return constant(false);
+                } else if (isConstant(a)) {
+                    return (operands1[a] != 0) ? not(b) : b;
+                } else if (isConstant(b)) {
+                    return (operands1[b] != 0) ? not(a) : a;
+                } else if (isComplement(a, b)) {
+                    return constant(true);
+                }
+                break;
+            case CompiledStatement.BICONDITIONAL:
+                if (a == b) {
+                    return constant(true);
+                } else if (isConstant(a)) {
+                    return (operands1[a] != 0) ? b : not(b);
+                } else if (isConstant(b)) {
+                    return (operands1[b] != 0) ? a : not(a);
+                } else if (isComplement(a, b)) {
+                    return constant(false);
+                }
+                break;
+            case CompiledStatement.CONDITIONAL:
+                if (a == b) {
+                    return constant(true);
+                } else if (isConstant(a)) {
+                    return (operands1[a] != 0) ? b : constant(true);
+                } else if (isConstant(b)) {
+                    return (operands1[b] != 0) ? b : not(a);
+                } else if (isComplement(a, b)) {
+                    // ~b => b is b, and a => ~a is ~a.
+                    return b;
+                }
+                break;
+            default: break;
+        }
+        return emit(opcode, a, b);
+    }
+
+    private int not(final int a) {
+        if (isConstant(a)) {
+            return constant(operands1[a] == 0);
+        } else if (opcodes[a] == CompiledStatement.NEGATION) {
+            return operands1[a];
+        }
+        return emit(CompiledStatement.NEGATION, a, 0);
+    }
+
+    private int constant(final boolean value) {
+        return emit(CompiledStatement.CONSTANT, value ? 1 : 0, 0);
+    }
+
+    private boolean isConstant(final int a) {
+        return opcodes[a] == CompiledStatement.CONSTANT;
+    }
+
+    private boolean isComplement(final int a, final int b) {
+        return ((opcodes[a] == CompiledStatement.NEGATION) && (operands1[a] == b)) ||
+               ((opcodes[b] == CompiledStatement.NEGATION) && (operands1[b] == a));
+    }
+
+    private boolean hasOperand(final int a, final int opcode, final int operand) {
+        return (opcodes[a] == opcode) &&
+               ((operands1[a] == operand) || (operands2[a] == operand));
+    }
+
+    private int emit(final int opcode, final int operand1, final int operand2) {
+        final int hash = (opcode * 0x9E3779B9) ^ (operand1 * 0x85EBCA6B) ^ (operand2 * 0xC2B2AE35);
+        int slot = (hash ^ (hash >>> 16)) & mask, instruction;
+        while (((instruction = instructionTable[slot]) != -1) &&
+               ((opcodes[instruction] != opcode) || (operands1[instruction] != operand1) ||
+                (operands2[instruction] != operand2))) {
+            slot = (slot + 1) & mask;
+        }
+        if (instruction == -1) {
+            instruction = numberOfInstructions++;
+            opcodes[instruction] = opcode;
+            operands1[instruction] = operand1;
+            operands2[instruction] = operand2;
+            instructionTable[slot] = instruction;
+        }
+        return instruction;
+    }
+
+    /**
+     * Keeps only the instructions the root depends on, and renumbers the
+     * propositions they load, preserving their order.
+     */
+    private CompiledStatement compact(final int root) {
+        final int numberOfPropositions = compiledStatement.getNumberOfPropositions();
+        final boolean[] isLive = new boolean[root + 1];
+        final boolean[] isLoaded = new boolean[numberOfPropositions];
+        isLive[root] = true;
+        for (int i = root; i >= 0; i--) {
+            if (isLive[i]) {
+                switch (opcodes[i]) {
+                    case CompiledStatement.LOAD:
+                        isLoaded[operands1[i]] = true;
+                        break;
+                    case CompiledStatement.CONSTANT:
+                        break;
+                    case CompiledStatement.NEGATION:
+                        isLive[operands1[i]] = true;
+                        break;
+                    default:
+                        isLive[operands1[i]] = true;
+                        isLive[operands2[i]] = true;
+                        break;
+                }
+            }
+        }
+        final int[] shifts = new int[numberOfPropositions],
+                    originalShifts = new int[numberOfPropositions];
+        int numberOfLoadedPropositions = 0;
+        for (int shift = 0; shift < numberOfPropositions; shift++) {
+            if (isLoaded[shift]) {
+                originalShifts[numberOfLoadedPropositions] = shift;
+                shifts[shift] = numberOfLoadedPropositions++;
+            }
+        }
+        final int[] index = new int[root + 1];
+        int count = 0;
+        for (int i = 0; i <= root; i++) {
+            if (isLive[i]) {
+                final int opcode = opcodes[i];
+                opcodes[count] = opcode;
+                if (opcode == CompiledStatement.LOAD) {
+                    operands1[count] = shifts[operands1[i]];
+                } else if (opcode == CompiledStatement.CONSTANT) {
+                    operands1[count] = operands1[i];
+                } else {
+                    operands1[count] = index[operands1[i]];
+                    operands2[count] = (opcode == CompiledStatement.NEGATION) ?
+                        0 : index[operands2[i]];
+                }
+                index[i] = count++;
+            }
+        }
+        return new CompiledStatement(numberOfLoadedPropositions,
+            Arrays.copyOf(opcodes, count), Arrays.copyOf(operands1, count),
+            Arrays.copyOf(operands2, count),
+            Arrays.copyOf(originalShifts, numberOfLoadedPropositions));
+    }
+}
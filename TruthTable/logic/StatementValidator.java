@@ -0,0 +1,99 @@
+/**
+ * Truth Table Constructor:
+ *     generates truth tables for statements in propositional logic
+ * Copyright (C) 2006, 2010, 2011  Brian S. Borowski
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * Email: brian_borowski AT yahoo DOT com
+ */
+package logic;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Checks statements without constructing their tables, collecting every
+ * problem the scanner and parser find rather than stopping at the first.
+ * Scanner problems are listed first, in order of position, followed by
+ * parser problems in the order the parser would have reported them; the
+ * first diagnostic is the error the scanner or parser would have thrown.
+ * Parsing continues past illegal symbols, which are simply left out, so a
+ * statement may also report problems caused by a missing symbol.
+ */
+public class StatementValidator {
+    private String statement;
+    private int[] inputPositions, statementPositions;
+    private int numberOfPositions;
+
+    public List<Diagnostic> validate(final String statement) {
+        return validate(new Scanner(statement));
+    }
+
+    public List<Diagnostic> validate(final Reader reader) {
+        return validate(new Scanner(reader));
+    }
+
+    /** Returns the reformatted form of the statement last validated. */
+    public String getStatement() {
+        return statement;
+    }
+
+    /**
+     * Maps a character index in the reformatted statement back to the
+     * corresponding index in the text that was validated, so that parser
+     * diagnostics can be shown against the text as it was typed.
+     */
+    public int toInputPosition(final int position) {
+        int index = Arrays.binarySearch(statementPositions, 0, numberOfPositions, position);
+        if (index < 0)
+            index = -index - 2;
+        if (index < 0)
+            return 0;
+        return inputPositions[index] + (position - statementPositions[index]);
+    }
+
+    private List<Diagnostic> validate(final Scanner scanner) {
+        final ArrayList<Diagnostic> diagnostics = new ArrayList<Diagnostic>();
+        try {
+            scanner.tokenize(diagnostics);
+            final LinkedList<Token> tokenStream = scanner.getTokenStream();
+            final Token[] tokens = tokenStream.toArray(new Token[tokenStream.size()]);
+            inputPositions = new int[tokens.length];
+            statementPositions = new int[tokens.length];
+            numberOfPositions = 0;
+            for (final Token token : tokens)
+                if ((token.getType() != Token.START) && (token.getType() != Token.END))
+                    inputPositions[numberOfPositions++] = token.getPosition();
+            scanner.reformat();
+            statement = scanner.getStatement();
+            for (int i = 1, j = 0; j < numberOfPositions; i++, j++)
+                statementPositions[j] = tokens[i].getPosition();
+            new Parser(scanner.getTokenStream()).parse(diagnostics);
+        } catch (final ScannerException se) {
+            // Not thrown while diagnostics are being collected.
+            diagnostics.add(new Diagnostic(Diagnostic.SCANNER,
+                ScannerException.UNKNOWN_ERROR, -1, -1, true));
+        } catch (final ParserException pe) {
+            diagnostics.add(new Diagnostic(Diagnostic.PARSER,
+                ParserException.UNKNOWN_ERROR, -1, -1, true));
+        }
+        return diagnostics;
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Truth Table Constructor:
+ *     generates truth tables for statements in propositional logic
+ * Copyright (C) 2006, 2010, 2011  Brian S. Borowski
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301,
+ * USA.
+ *
+ * Email: brian_borowski AT yahoo DOT com
+ */
+package logic;
+
+import java.util.ArrayList;
+
+/**
+ * Interns proposition names, giving each distinct name a dense id in the
+ * order the names are first seen. Single letters are case-insensitive and
+ * are looked up directly; longer names are hashed in an open-addressing
+ * table, straight from the characters being scanned.
+ */
+public class SymbolTable {
+    private final ArrayList<String> names;
+    private final int[] letterNames;
+    private int[] nameTable;
+
+    public SymbolTable() {
+        names = new ArrayList<String>();
+        letterNames = new int[26];
+        for (int i = 0; i < letterNames.length; i++) {
+            letterNames[i] = -1;
+        }
+        nameTable = new int[64];
+        for (int i = 0; i < nameTable.length; i++) {
+            nameTable[i] = -1;
+        }
+    }
+
+    public int getNumberOfSymbols() {
+        return names.size();
+    }
+
+    public String getName(final int id) {
+        return names.get(id);
+    }
+
+    public int intern(final String name) {
+        return intern(name.toCharArray(), 0, name.length());
+    }
+
+    /**
+     * Returns the id of the name held in the given range of characters,
+     * adding the name if it is new. The characters are only copied when a
+     * new name is added.
+     */
+    public int intern(final char[] characters, final int start, final int length) {
+        if (length == 1) {
+            final int letter = Character.toUpperCase(characters[start]) - 'A';
+            if (letterNames[letter] == -1) {
+                letterNames[letter] = names.size();
+                names.add(String.valueOf((char)('A' + letter)));
+            }
+            return letterNames[letter];
+        }
+        final int mask = nameTable.length - 1;
+        int slot = hash(characters, start, length) & mask;
+        while (nameTable[slot] != -1) {
+            final String name = names.get(nameTable[slot]);
+            if ((name.length() == length) && (regionMatches(characters, start, name))) {
+                return nameTable[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        final int id = names.size();
+        names.add(new String(characters, start, length));
+        nameTable[slot] = id;
+        if (names.size() << 1 > nameTable.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    private static boolean regionMatches(final char[] characters, final int start,
+        final String name) {
+
+        for (int i = name.length() - 1; i >= 0; i--) {
+            if (characters[start + i] != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(final char[] characters, final int start, final int length) {
+        int hash = 0;
+        for (int i = start + length - 1; i >= start; i--) {
+            hash = 31 * hash + characters[i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private void rehash() {
+        nameTable = new int[nameTable.length << 1];
+        final int mask = nameTable.length - 1;
+        for (int i = 0; i < nameTable.length; i++) {
+            nameTable[i] = -1;
+        }
+        for (int id = names.size() - 1; id >= 0; id--) {
+            final String name = names.get(id);
+            if (name.length() > 1) {
+                final char[] characters = name.toCharArray();
+                int slot = hash(characters, 0, characters.length) & mask;
+                while (nameTable[slot] != -1) {
+                    slot = (slot + 1) & mask;
+                }
+                nameTable[slot] = id;
+            }
+        }
+    }
+}
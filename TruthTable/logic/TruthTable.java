@@ -22,12 +22,9 @@
  */
 package logic;
 
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.ListIterator;
-import java.util.Stack;
-import java.util.Vector;
 
 public class TruthTable {
     public static int UNDEFINED     = -1,
@@ -37,15 +34,27 @@ public class TruthTable {
                       CONTRADICTION =  3;
     public static String[] EVALUATION_DEFINITION =
         {"Tautology", "Identity", "Conditional", "Contradiction"};
+    public static int MAX_PROPOSITIONS = 62,
+                      MAX_PROPOSITIONS_TO_ENUMERATE = 20;
+    public static long MAX_COLUMN_CACHE_BYTES = 32L << 20;
+    public static boolean SIMPLIFY_BEFORE_CLASSIFYING = true;
     private int numberOfPropositions, numberOfOperators;
-    private final int displayMethod, numberOfLines;
+    private final int displayMethod;
+    private final long numberOfLines;
     private final boolean alphabetizePropositions;
-    private boolean arePositionsCalculated;
     private final LinkedList<Token> postfixStream;
-    private final Vector<String> propositionNamesVector;
-    private final HashMap<String, Integer> propositionNamesToPositionsMap;
+    private String[] propositionNames;
+    private int[] propositionPositions;
     private final String infixStatement;
     private final int[] operatorPositions;
+    private final CompiledStatement compiledStatement;
+    private CompiledStatement reducedStatement;
+    private final GrayCodeEnumerator rowEnumerator;
+    private ColumnCache columnCache;
+    private boolean isColumnCacheUnavailable;
+    private final String[][] columnOrderStringsCache;
+    private final RowFormatter rowFormatter;
+    private final long[] rowColumnValues;
 
     public TruthTable(final String infixStatement, final LinkedList<Token> postfixStream,
         final int displayMethod, final boolean alphabetizePropositions) {
@@ -53,24 +62,29 @@ public class TruthTable {
         this.postfixStream = postfixStream;
         this.displayMethod = displayMethod;
         this.alphabetizePropositions = alphabetizePropositions;
-        this.arePositionsCalculated = false;
-        propositionNamesVector = new Vector<String>();
-        propositionNamesToPositionsMap = new HashMap<String, Integer>();
         extractPropositionData();
+        compiledStatement = new CompiledStatement(postfixStream,
+            propositionPositions, numberOfPropositions);
+        rowEnumerator = new GrayCodeEnumerator(compiledStatement);
         operatorPositions = new int[numberOfOperators];
-        numberOfLines = (int)Math.pow(2, numberOfPropositions);
+        for (int i = 0; i < numberOfOperators; i++) {
+            operatorPositions[i] = compiledStatement.getColumnPosition(i);
+        }
+        numberOfLines = 1L << numberOfPropositions;
+        columnOrderStringsCache = new String[numberOfOperators + 1][];
+        rowFormatter = new RowFormatter(compiledStatement, infixStatement.length(), displayMethod);
+        rowColumnValues = new long[compiledStatement.getNumberOfColumnWords()];
     }
 
     public String getStatement() {
         return infixStatement;
     }
 
-    public int getNumberOfLines() {
+    public long getNumberOfLines() {
         return numberOfLines;
     }
 
     public int getNumberOfColumns() {
-        getPositionOfMainColumn();
         int numberOfColumns = operatorPositions.length;
         if (numberOfColumns == 0) {
             numberOfColumns = 1;
@@ -84,18 +98,22 @@ public class TruthTable {
     }
 
     public String[] getPropositionNames() {
-        return propositionNamesVector.toArray(new String[propositionNamesVector.size()]);
+        return propositionNames.clone();
     }
 
     public int getDisplayMethod() {
         return displayMethod;
     }
 
+    public CompiledStatement getCompiledStatement() {
+        return compiledStatement;
+    }
+
     public String getHeaderSeparator() {
         final StringBuilder builder = new StringBuilder();
         for (int i = 0; i < numberOfPropositions; i++) {
             builder.append("-");
-            final int propositionLength = propositionNamesVector.elementAt(i).length();
+            final int propositionLength = propositionNames[i].length();
             for (int j = 0; j < propositionLength; j++) {
                 builder.append("-");
             }
@@ -108,11 +126,58 @@ public class TruthTable {
         return builder.toString();
     }
 
+    public int getPropositionWidth(final int proposition) {
+        return propositionNames[proposition].length();
+    }
+
+    public void appendPropositionValues(final long index, final boolean isForTextVersion,
+        final StringBuilder builder) {
+
+        for (int i = 0; i < numberOfPropositions; i++) {
+            final int width = getPropositionWidth(i), leading = (width - 1) / 2;
+            builder.append(" ");
+            for (int j = 0; j < leading; j++) {
+                builder.append(" ");
+            }
+            builder.append(TruthValue.getTruthValueChar(
+                ((index >>> (numberOfPropositions - i - 1)) & 1L) != 0, displayMethod));
+            for (int j = width - leading - 1; j > 0; j--) {
+                builder.append(" ");
+            }
+            builder.append(" ");
+            if (isForTextVersion) {
+                builder.append("|");
+            }
+        }
+    }
+
+    /**
+     * Writes the values of the propositions in the given row into chars,
+     * laid out as by appendPropositionValues for the graphic version, and
+     * returns the offset that follows them.
+     */
+    public int formatPropositionValues(final long index, final char[] chars, int offset) {
+        for (int i = 0; i < numberOfPropositions; i++) {
+            final int width = getPropositionWidth(i), leading = (width - 1) / 2;
+            chars[offset++] = ' ';
+            for (int j = 0; j < leading; j++) {
+                chars[offset++] = ' ';
+            }
+            chars[offset++] = TruthValue.getTruthValueChar(
+                ((index >>> (numberOfPropositions - i - 1)) & 1L) != 0, displayMethod);
+            for (int j = width - leading - 1; j > 0; j--) {
+                chars[offset++] = ' ';
+            }
+            chars[offset++] = ' ';
+        }
+        return offset;
+    }
+
     public String getHeader(final boolean isForTextVersion) {
         final StringBuilder builder = new StringBuilder();
         for (int i = 0; i < numberOfPropositions; i++) {
             builder.append(" ");
-            builder.append(propositionNamesVector.elementAt(i));
+            builder.append(propositionNames[i]);
             builder.append(" ");
             if (isForTextVersion) {
                 builder.append("|");
@@ -125,79 +190,151 @@ public class TruthTable {
     }
 
     public int getPositionOfMainColumn() {
-        final boolean[] binaryPropositionValue = getBinaryFormat(0);
-        final LinkedList<Token> substitutedPostfix = substituteTruthValues(binaryPropositionValue);
-        evaluatePostfix(substitutedPostfix, binaryPropositionValue);
+        return compiledStatement.getRootPosition();
+    }
+
+    public int getNumberOfWords() {
+        return compiledStatement.getNumberOfWords();
+    }
 
-        if (operatorPositions.length != 0) {
-            return operatorPositions[operatorPositions.length - 1];
+    public long getWordMask() {
+        return compiledStatement.getWordMask();
+    }
+
+    /**
+     * Returns the statement the classifiers work on: the simplified form of
+     * the compiled statement, or the compiled statement itself when
+     * simplification is turned off. The displayed columns always come from
+     * the compiled statement.
+     */
+    public synchronized CompiledStatement getReducedStatement() {
+        if (reducedStatement == null) {
+            if (SIMPLIFY_BEFORE_CLASSIFYING) {
+                reducedStatement = new Simplifier(compiledStatement).simplify();
+            } else {
+                reducedStatement = compiledStatement;
+            }
+        }
+        return reducedStatement;
+    }
+
+    public Classifier createClassifier() {
+        if (getReducedStatement().getNumberOfPropositions() > MAX_PROPOSITIONS_TO_ENUMERATE) {
+            return new BddClassifier(this);
         } else {
-            return 0;
+            return new ParallelClassifier(this);
         }
     }
 
     public int getEvaluation() {
-        int pos, result, i = 0;
-        final int upperBound = numberOfLines / 2, oneLess = numberOfLines - 1;
-        char ch;
-        boolean done = false;
-        final String row = computeRow(0);
-
-        if (operatorPositions.length != 0) {
-            pos = operatorPositions[operatorPositions.length - 1];
+        return createClassifier().classify();
+    }
+
+    public GrayCodeEnumerator createGrayCodeEnumerator() {
+        return new GrayCodeEnumerator(compiledStatement);
+    }
+
+    public BinaryDecisionDiagram createBinaryDecisionDiagram() {
+        return new BinaryDecisionDiagram(compiledStatement);
+    }
+
+    public int getEvaluation(final boolean valueOfEveryRow) {
+        if (!valueOfEveryRow) {
+            return CONTRADICTION;
+        } else if (displayMethod == TruthValue.TRUE_FALSE) {
+            return TAUTOLOGY;
         } else {
-            pos = 0;
+            return IDENTITY;
         }
-        ch = row.charAt(pos);
-        if (ch == 'T') {
-            result = TAUTOLOGY;
-        } else if (ch == '1') {
-            result = IDENTITY;
+    }
+
+    public String computeRow(final long index) {
+        return computeRow(index, Integer.MAX_VALUE);
+    }
+
+    public synchronized String computeRow(final long index, final int maxColumn) {
+        getColumnValues(index, rowColumnValues, 0);
+        return rowFormatter.format(rowColumnValues, maxColumn);
+    }
+
+    /**
+     * Writes the given row, evaluated up to maxColumn, into chars starting
+     * at the given offset.
+     */
+    public synchronized void computeRow(final long index, final int maxColumn,
+        final char[] chars, final int offset) {
+
+        getColumnValues(index, rowColumnValues, 0);
+        rowFormatter.format(rowColumnValues, 0, maxColumn, chars, offset);
+    }
+
+    public RowFormatter getRowFormatter() {
+        return rowFormatter;
+    }
+
+    public int getNumberOfColumnWords() {
+        return compiledStatement.getNumberOfColumnWords();
+    }
+
+    public synchronized boolean getValue(final long index) {
+        final ColumnCache cache = getColumnCache();
+        if (cache != null) {
+            return cache.getValue(compiledStatement.getNumberOfColumns() - 1, index);
         } else {
-            result = CONTRADICTION;
+            return rowEnumerator.seek(index);
         }
+    }
 
-        while (i < upperBound) {
-            if ((computeRow(i).charAt(pos) == ch) && (computeRow(oneLess - i).charAt(pos) == ch)) {
-                i += 1;
-            } else {
-                done = true;
-                break;
-            }
+    public synchronized void getValues(final long firstIndex, final int numberOfRows,
+        final boolean[] values) {
+
+        for (int i = 0; i < numberOfRows; i++) {
+            values[i] = getValue(firstIndex + i);
         }
+    }
+
+    public long[] getColumnValues(final long index) {
+        final long[] columnValues = new long[compiledStatement.getNumberOfColumnWords()];
+        getColumnValues(index, columnValues, 0);
+        return columnValues;
+    }
 
-        if (!done) {
-            return result;
+    public synchronized void getColumnValues(final long index, final long[] columnValues,
+        final int offset) {
+
+        final ColumnCache cache = getColumnCache();
+        if (cache != null) {
+            cache.getColumnValues(index, columnValues, offset);
         } else {
-            return CONDITIONAL;
+            rowEnumerator.seek(index);
+            compiledStatement.packColumns(rowEnumerator.getValues(), columnValues, offset);
         }
     }
 
-    public String computeRow(final int index) {
-        final boolean[] binaryPropositionValues = getBinaryFormat(index);
-        final LinkedList<Token> substitutedPostfix = substituteTruthValues(binaryPropositionValues);
-        return evaluatePostfix(substitutedPostfix, binaryPropositionValues);
-    }
+    public synchronized void getColumnValues(final long firstIndex, final int numberOfRows,
+        final long[] columnValues) {
 
-    public String computeRow(final int index, final int maxColumn) {
-        final String rowString = computeRow(index);
-        final char[] rowCharArray = new char[rowString.length()];
-        for (int i = rowString.length() - 1; i >= 0; i--) {
-            rowCharArray[i] = rowString.charAt(i);
+        final int numberOfColumnWords = compiledStatement.getNumberOfColumnWords();
+        for (int i = 0; i < numberOfRows; i++) {
+            getColumnValues(firstIndex + i, columnValues, i * numberOfColumnWords);
         }
-        final int length = operatorPositions.length;
-        if ((maxColumn == -1) && (length == 0)) {
-            rowCharArray[0] = ' ';
-        } else {
-            for (int i = maxColumn + 1; i < operatorPositions.length; i++) {
-                rowCharArray[operatorPositions[i]] = ' ';
+    }
+
+    public synchronized ColumnCache getColumnCache() {
+        if ((columnCache == null) && (!isColumnCacheUnavailable)) {
+            final int numberOfWords = getNumberOfWords();
+            if ((numberOfPropositions > MAX_PROPOSITIONS_TO_ENUMERATE) ||
+                (ColumnCache.getSizeInBytes(compiledStatement.getNumberOfColumns(),
+                    numberOfWords) > MAX_COLUMN_CACHE_BYTES)) {
+                isColumnCacheUnavailable = true;
+            } else {
+                columnCache = new ColumnCache(compiledStatement, numberOfWords, getWordMask());
             }
         }
-        return new String(rowCharArray);
+        return columnCache;
     }
 
     public int getColumnInfoHeight() {
-        computeRow(0);
         int height = 2;
         if ((operatorPositions != null) && (operatorPositions.length > 0))
             height += (int)Math.log10(operatorPositions.length);
@@ -207,6 +344,17 @@ public class TruthTable {
     public String[] getColumnOrderStrings(int currentColumn) {
         if (currentColumn > operatorPositions.length - 1)
             currentColumn = operatorPositions.length - 1;
+        if (currentColumn < -1)
+            currentColumn = -1;
+        String[] columnOrderStrings = columnOrderStringsCache[currentColumn + 1];
+        if (columnOrderStrings == null) {
+            columnOrderStrings = createColumnOrderStrings(currentColumn);
+            columnOrderStringsCache[currentColumn + 1] = columnOrderStrings;
+        }
+        return columnOrderStrings;
+    }
+
+    private String[] createColumnOrderStrings(final int currentColumn) {
         final String[] columnOrderStrings = new String[getColumnInfoHeight()];
         if (operatorPositions.length == 0) {
             columnOrderStrings[0] = "^ ";
@@ -234,116 +382,56 @@ public class TruthTable {
         return columnOrderStrings;
     }
 
+    /**
+     * Numbers the propositions by their first occurrence, or alphabetically,
+     * and records the position of each proposition id from the scanner's
+     * symbol table, so that no names are hashed while compiling.
+     */
     private void extractPropositionData() {
-        final ListIterator<Token> iterator = postfixStream.listIterator(0);
+        int numberOfIds = 0;
+        ListIterator<Token> iterator = postfixStream.listIterator(0);
         while (iterator.hasNext()) {
             final Token token = iterator.next();
             final int tokenType = token.getType();
             if (tokenType == Token.PROPOSITION) {
-                final String tokenSymbol = token.getSymbol();
-                if (!propositionNamesToPositionsMap.containsKey(tokenSymbol)) {
-                    // This method needs to be revisited if we allow propositions
-                    // to be greater than 1 character in length.
-                    propositionNamesVector.add(tokenSymbol);
-                    propositionNamesToPositionsMap.put(tokenSymbol,
-                        new Integer(0));
-                    numberOfPropositions++;
-                }
+                numberOfIds = Math.max(numberOfIds, ((PropositionToken)token).getId() + 1);
             } else if ((tokenType == Token.UNARY_OPERATOR) ||
                      (tokenType == Token.BINARY_OPERATOR)) {
                 numberOfOperators++;
             }
         }
-        if (alphabetizePropositions) {
-            Collections.sort(propositionNamesVector);
+        propositionPositions = new int[numberOfIds];
+        Arrays.fill(propositionPositions, -1);
+        final int[] ids = new int[numberOfIds];
+        final String[] names = new String[numberOfIds];
+        iterator = postfixStream.listIterator(0);
+        while (iterator.hasNext()) {
+            final Token token = iterator.next();
+            if (token.getType() == Token.PROPOSITION) {
+                final int id = ((PropositionToken)token).getId();
+                if (propositionPositions[id] == -1) {
+                    propositionPositions[id] = numberOfPropositions;
+                    ids[numberOfPropositions] = id;
+                    names[numberOfPropositions++] = token.getSymbol();
+                }
+            }
         }
-        String tokenSymbol;
-        for (int i = 0; i < numberOfPropositions; i++) {
-            tokenSymbol = propositionNamesVector.elementAt(i);
-            propositionNamesToPositionsMap.put(tokenSymbol, new Integer(i));
+        propositionNames = new String[numberOfPropositions];
+        System.arraycopy(names, 0, propositionNames, 0, numberOfPropositions);
+        if (alphabetizePropositions) {
+            // Apply the alphabetical order as a permutation of the ids.
+            Arrays.sort(propositionNames);
+            for (int i = 0; i < numberOfPropositions; i++) {
+                propositionPositions[ids[i]] = Arrays.binarySearch(propositionNames, names[i]);
+            }
         }
     }
 
-    public boolean[] getBinaryFormat(int n) {
-        int base = numberOfLines >> 1;
+    public boolean[] getBinaryFormat(final long n) {
         final boolean[] binary = new boolean[numberOfPropositions];
         for (int i = 0; i < numberOfPropositions; i++) {
-            final int temp = n - base;
-            if (temp >= 0) {
-                n = temp;
-                binary[i] = true;
-            }
-            base >>= 1;
+            binary[i] = ((n >>> (numberOfPropositions - i - 1)) & 1L) != 0;
         }
         return binary;
     }
-
-    private LinkedList<Token> substituteTruthValues(final boolean[] binary) {
-        final LinkedList<Token> substitutedPostfix = new LinkedList<Token>();
-        final ListIterator<Token> iterator = postfixStream.listIterator(0);
-        while (iterator.hasNext()) {
-            final Token token = iterator.next();
-            final int tokenType = token.getType();
-            if (tokenType == Token.PROPOSITION) {
-                final int i = propositionNamesToPositionsMap.get(token.getSymbol()).intValue();
-                substitutedPostfix.add(
-                    new ValueToken(binary[i], displayMethod, token.getPosition()));
-            } else if (tokenType == Token.CONSTANT) {
-                final ConstantToken constantToken = (ConstantToken)token;
-                substitutedPostfix.add(
-                    new ValueToken(constantToken.getValue(), displayMethod, token.getPosition()));
-            } else {
-                substitutedPostfix.add(token);
-            }
-        }
-        return substitutedPostfix;
-    }
-
-    private String evaluatePostfix(final LinkedList<Token> postfixStream, final boolean[] binary) {
-        final char[] charArray = new char[infixStatement.length()];
-        for (int i = 0; i < charArray.length; i++) {
-            charArray[i] = ' ';
-        }
-        final Stack<Token> stack = new Stack<Token>();
-        final ListIterator<Token> iterator = postfixStream.listIterator(0);
-        int pos = 0;
-
-        while (iterator.hasNext()) {
-            final Token token = iterator.next();
-            final int tokenType = token.getType();
-            if (tokenType == Token.BINARY_OPERATOR) {
-                final ValueToken stackPopped2 = (ValueToken)stack.pop(),
-                           stackPopped1 = (ValueToken)stack.pop();
-                final BinaryEvaluator binaryEvaluator = (BinaryEvaluator)token;
-                final ValueToken valueToken = binaryEvaluator.evaluate(stackPopped1, stackPopped2);
-                if (iterator.hasNext()) {
-                    stack.push(valueToken);
-                }
-                charArray[valueToken.getPosition()] = valueToken.getSymbol().charAt(0);
-                if (!arePositionsCalculated) {
-                    operatorPositions[pos++] = token.getPosition() + token.getOffset();
-                }
-            } else if (tokenType == Token.UNARY_OPERATOR) {
-                final ValueToken stackPopped = (ValueToken)stack.pop();
-                final UnaryEvaluator unaryEvaluator = (UnaryEvaluator)token;
-                final ValueToken valueToken = unaryEvaluator.evaluate(stackPopped);
-                if (iterator.hasNext()) {
-                    stack.push(valueToken);
-                }
-                charArray[valueToken.getPosition()] = valueToken.getSymbol().charAt(0);
-                if (!arePositionsCalculated) {
-                    operatorPositions[pos++] = token.getPosition() + token.getOffset();
-                }
-            } else {
-                stack.push(token);
-            }
-        }
-        if (!stack.empty()) {
-            final ValueToken stackPopped = (ValueToken)stack.pop();
-            charArray[stackPopped.getPosition()] =
-                TruthValue.getTruthValueString(stackPopped.getValue(), displayMethod).charAt(0);
-        }
-        arePositionsCalculated = true;
-        return new String(charArray);
-    }
 }
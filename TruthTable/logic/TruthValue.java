@@ -35,4 +35,12 @@ public class TruthValue {
         }
         return valueString;
     }
+
+    public static char getTruthValueChar(final boolean value, final int displayMethod) {
+        if (displayMethod == TRUE_FALSE) {
+            return (value == true) ? 'T' : 'F';
+        } else {
+            return (value == true) ? '1' : '0';
+        }
+    }
 }
@@ -24,4 +24,5 @@ package logic;
 
 public interface UnaryEvaluator {
     public ValueToken evaluate(ValueToken token);
+    public int getOpcode();
 }